@@ -0,0 +1,207 @@
+package com.logistics.analyticsservice.aggregate;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.matrix.OdMatrix;
+import com.logistics.analyticsservice.sketch.SketchRegistry;
+import com.logistics.analyticsservice.window.RouteWindows;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// All route state, together with the offset of the next record each partition has not yet applied,
+// so a checkpoint always describes exactly which events it contains.
+//
+// A checkpoint freezes the state instead of locking it for the whole encode: the write lock is held only to flip
+// the frozen flag, which waits out the batches already being applied. While frozen, partition threads park their
+// batches in a queue rather than touching the state, so the encoder reads a quiet, consistent cut; afterwards the
+// parked batches are applied in arrival order and the flag is cleared. Consumption never waits for the encode.
+@Component
+@RequiredArgsConstructor
+public class RouteAggregates {
+
+    private final RouteWindows routeWindows;
+    private final SketchRegistry sketchRegistry;
+    private final OdMatrix odMatrix;
+
+    // Stores "City Name" -> "Number of Shipments Involved"
+    private final Map<String, LongAdder> cityPopularityIndex = new ConcurrentHashMap<>();
+    // Offsets the state itself contains, as checkpointed
+    private final Map<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+    // Offsets handed to apply, including parked batches; a rebalance resumes from these
+    private final Map<Integer, Long> acceptedOffsets = new ConcurrentHashMap<>();
+    private final Set<String> changedCities = ConcurrentHashMap.newKeySet();
+
+    // Partition threads apply batches concurrently under the read lock; the write lock only guards freezing
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final Queue<ParkedBatch> parked = new ConcurrentLinkedQueue<>();
+    private volatile boolean frozen;
+
+    // The exact index grows with every distinct destination; with it off, /stats is served from the top-K sketch
+    @Value("${analytics.exact-index.enabled:true}")
+    private boolean exactIndexEnabled;
+
+    @Value("${analytics.sketch.top-k:1000}")
+    private int statsLimit;
+
+    public void apply(int partition, RouteBatch batch) {
+        snapshotLock.readLock().lock();
+        try {
+            acceptedOffsets.merge(partition, batch.nextOffset(), Math::max);
+            if (frozen) {
+                parked.add(new ParkedBatch(partition, batch));
+            } else {
+                applyNow(partition, batch);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    private void applyNow(int partition, RouteBatch batch) {
+        sketchRegistry.forPartition(partition).apply(batch);
+        routeWindows.apply(partition, batch);
+        odMatrix.apply(batch);
+        if (exactIndexEnabled) {
+            batch.destinations().forEach((destination, count) ->
+                    cityPopularityIndex.computeIfAbsent(destination, d -> new LongAdder()).add(count[0]));
+        }
+        changedCities.addAll(batch.destinations().keySet());
+        nextOffsets.merge(partition, batch.nextOffset(), Math::max);
+    }
+
+    // City -> shipments, from the exact index or, when that is off, from the top-K destination sketch
+    public Map<String, Long> cityCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (exactIndexEnabled) {
+            cityPopularityIndex.forEach((city, count) -> counts.put(city, count.sum()));
+        } else {
+            sketchRegistry.merged().topDestinations(statsLimit)
+                    .forEach(hitter -> counts.put(hitter.getKey(), hitter.getCount()));
+        }
+        return counts;
+    }
+
+    public Map<String, Long> cityCounts(Collection<String> cities) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (exactIndexEnabled) {
+            for (String city : cities) {
+                LongAdder count = cityPopularityIndex.get(city);
+                if (count != null) {
+                    counts.put(city, count.sum());
+                }
+            }
+        } else {
+            Map<String, Long> top = cityCounts();
+            for (String city : cities) {
+                Long count = top.get(city);
+                if (count != null) {
+                    counts.put(city, count);
+                }
+            }
+        }
+        return counts;
+    }
+
+    // Cities whose count changed since the previous call
+    public Set<String> drainChangedCities() {
+        Set<String> drained = new HashSet<>();
+        for (Iterator<String> it = changedCities.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    // Where each partition resumes: past every batch handed to apply, whether applied yet or still parked
+    public Map<Integer, Long> nextOffsets() {
+        return new HashMap<>(acceptedOffsets);
+    }
+
+    public synchronized SnapshotOutput encode() {
+        SnapshotOutput out = new SnapshotOutput(1 << 20);
+        setFrozen(true);
+        try {
+            out.writeInt(nextOffsets.size());
+            nextOffsets.forEach((partition, offset) -> {
+                out.writeInt(partition);
+                out.writeLong(offset);
+            });
+            out.writeInt(cityPopularityIndex.size());
+            cityPopularityIndex.forEach((city, count) -> {
+                out.writeString(city);
+                out.writeLong(count.sum());
+            });
+            routeWindows.writeTo(out);
+            sketchRegistry.writeTo(out);
+            odMatrix.writeTo(out);
+        } finally {
+            // Catch up without the lock, then hold it only for whatever arrived during the catch-up
+            applyParked();
+            setFrozen(false);
+        }
+        return out;
+    }
+
+    private void setFrozen(boolean frozen) {
+        snapshotLock.writeLock().lock();
+        try {
+            if (!frozen) {
+                applyParked();
+            }
+            this.frozen = frozen;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private void applyParked() {
+        for (ParkedBatch batch = parked.poll(); batch != null; batch = parked.poll()) {
+            applyNow(batch.partition(), batch.batch());
+        }
+    }
+
+    // Called once at startup, before the listener containers start
+    public void restore(SnapshotInput in) {
+        snapshotLock.writeLock().lock();
+        try {
+            nextOffsets.clear();
+            int partitions = in.readInt();
+            for (int i = 0; i < partitions; i++) {
+                nextOffsets.put(in.readInt(), in.readLong());
+            }
+            acceptedOffsets.clear();
+            acceptedOffsets.putAll(nextOffsets);
+            cityPopularityIndex.clear();
+            int cities = in.readInt();
+            for (int i = 0; i < cities; i++) {
+                LongAdder count = new LongAdder();
+                String city = in.readString();
+                count.add(in.readLong());
+                cityPopularityIndex.put(city, count);
+            }
+            routeWindows.restore(in);
+            sketchRegistry.restore(in);
+            odMatrix.restore(in);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private record ParkedBatch(int partition, RouteBatch batch) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.logistics.analyticsservice.aggregate;
+
+import com.logistics.analyticsservice.window.RouteWindows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Thread-local pre-aggregation of one poll's route events. Counts are plain primitives keyed by
+// origin and destination, so shared state is touched once per distinct key instead of once per event.
+public final class RouteBatch {
+
+    private final Map<String, Map<String, Lane>> lanesByOrigin = new HashMap<>();
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<String, long[]> destinations = new HashMap<>();
+    private double[] weights = new double[256];
+    private int weightCount;
+    private int events;
+    private long lastOffset = -1;
+
+    public void add(String origin, String destination, long timestamp, Double weight) {
+        Lane lane = lanesByOrigin.computeIfAbsent(origin, o -> new HashMap<>()).get(destination);
+        if (lane == null) {
+            lane = new Lane(origin, destination);
+            lanesByOrigin.get(origin).put(destination, lane);
+            lanes.add(lane);
+        }
+        lane.add(timestamp, weight);
+        destinations.computeIfAbsent(destination, d -> new long[1])[0]++;
+
+        if (weight != null) {
+            if (weightCount == weights.length) {
+                weights = Arrays.copyOf(weights, weightCount * 2);
+            }
+            weights[weightCount++] = weight;
+        }
+        events++;
+    }
+
+    // Every record counts towards the offset, including ones that could not be deserialized
+    public void markOffset(long offset) {
+        lastOffset = Math.max(lastOffset, offset);
+    }
+
+    public long nextOffset() {
+        return lastOffset + 1;
+    }
+
+    public int events() {
+        return events;
+    }
+
+    public List<Lane> lanes() {
+        return lanes;
+    }
+
+    public Map<String, long[]> destinations() {
+        return destinations;
+    }
+
+    public double[] weights() {
+        return weights;
+    }
+
+    public int weightCount() {
+        return weightCount;
+    }
+
+    // Events for one origin->destination pair, counted per second of event time (the finest window bucket)
+    public static final class Lane {
+        private final String origin;
+        private final String destination;
+        private final String key;
+        private long count;
+        private double weightKg;
+        private long lastSeen = Long.MIN_VALUE;
+        private long[] seconds = new long[4];
+        private long[] secondCounts = new long[4];
+        private int buckets;
+
+        private Lane(String origin, String destination) {
+            this.origin = origin;
+            this.destination = destination;
+            this.key = RouteWindows.laneKey(origin, destination);
+        }
+
+        private void add(long timestamp, Double weight) {
+            count++;
+            if (weight != null) {
+                weightKg += weight;
+            }
+            lastSeen = Math.max(lastSeen, timestamp);
+            long second = Math.floorDiv(timestamp, 1000L);
+            // Batches span a few seconds at most, so a short scan from the newest bucket beats hashing
+            for (int i = buckets - 1; i >= 0; i--) {
+                if (seconds[i] == second) {
+                    secondCounts[i]++;
+                    return;
+                }
+            }
+            if (buckets == seconds.length) {
+                seconds = Arrays.copyOf(seconds, buckets * 2);
+                secondCounts = Arrays.copyOf(secondCounts, buckets * 2);
+            }
+            seconds[buckets] = second;
+            secondCounts[buckets++] = 1;
+        }
+
+        public String origin() {
+            return origin;
+        }
+
+        public String destination() {
+            return destination;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double weightKg() {
+            return weightKg;
+        }
+
+        public long lastSeen() {
+            return lastSeen;
+        }
+
+        public int buckets() {
+            return buckets;
+        }
+
+        public long bucketStartMs(int bucket) {
+            return seconds[bucket] * 1000L;
+        }
+
+        public long bucketCount(int bucket) {
+            return secondCounts[bucket];
+        }
+    }
+}
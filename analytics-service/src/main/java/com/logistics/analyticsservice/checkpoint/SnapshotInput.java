@@ -0,0 +1,43 @@
+package com.logistics.analyticsservice.checkpoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Reads what SnapshotOutput wrote, straight from the mapped file
+public final class SnapshotInput {
+
+    private final ByteBuffer buffer;
+
+    public SnapshotInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public String readString() {
+        byte[] bytes = new byte[readInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void readBytes(byte[] target) {
+        buffer.get(target);
+    }
+
+    public long[] readLongs() {
+        long[] values = new long[readInt()];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Long.BYTES);
+        return values;
+    }
+}
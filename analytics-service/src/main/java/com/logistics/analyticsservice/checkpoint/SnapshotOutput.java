@@ -0,0 +1,56 @@
+package com.logistics.analyticsservice.checkpoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Growable buffer for the snapshot encoding: fixed-width primitives, length-prefixed UTF-8 strings
+public final class SnapshotOutput {
+
+    private ByteBuffer buffer;
+
+    public SnapshotOutput(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    public void writeInt(int value) {
+        ensure(Integer.BYTES).putInt(value);
+    }
+
+    public void writeLong(long value) {
+        ensure(Long.BYTES).putLong(value);
+    }
+
+    public void writeDouble(double value) {
+        ensure(Double.BYTES).putDouble(value);
+    }
+
+    public void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    public void writeBytes(byte[] bytes) {
+        ensure(bytes.length).put(bytes);
+    }
+
+    public void writeLongs(long[] values, int length) {
+        writeInt(length);
+        ensure(length * Long.BYTES).asLongBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    // The encoded bytes, ready to be read from position 0
+    public ByteBuffer toBuffer() {
+        return buffer.duplicate().flip();
+    }
+
+    private ByteBuffer ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            grown.put(buffer.flip());
+            buffer = grown;
+        }
+        return buffer;
+    }
+}
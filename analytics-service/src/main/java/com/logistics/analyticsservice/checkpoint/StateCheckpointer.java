@@ -0,0 +1,110 @@
+package com.logistics.analyticsservice.checkpoint;
+
+import com.logistics.analyticsservice.aggregate.RouteAggregates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Periodically writes the route aggregates, with the Kafka offsets they cover, to a memory-mapped file.
+// A new snapshot is written beside the old one and renamed over it, so a crash mid-write leaves the previous
+// checkpoint intact. On startup the snapshot is loaded and the listener seeks to its offsets.
+@Component
+public class StateCheckpointer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateCheckpointer.class);
+
+    private static final int MAGIC = 0x52544350;    // "RTCP"
+    private static final int VERSION = 3;     // 2: adds the origin-destination matrix, 3: per-partition watermarks
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    private final RouteAggregates routeAggregates;
+    private final Path path;
+    private final boolean enabled;
+
+    public StateCheckpointer(RouteAggregates routeAggregates,
+                             @Value("${analytics.checkpoint.path:./data/analytics-state.snap}") String path,
+                             @Value("${analytics.checkpoint.enabled:true}") boolean enabled) {
+        this.routeAggregates = routeAggregates;
+        this.path = Path.of(path).toAbsolutePath();
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.remaining() < HEADER_BYTES || mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                LOGGER.warn("Ignoring unrecognised analytics checkpoint {}", path);
+                return;
+            }
+            int length = mapped.getInt();
+            int checksum = mapped.getInt();
+            if (length != mapped.remaining() || checksum != crc(mapped.slice())) {
+                LOGGER.warn("Ignoring corrupt analytics checkpoint {}", path);
+                return;
+            }
+            routeAggregates.restore(new SnapshotInput(mapped.slice()));
+            LOGGER.info("Restored analytics checkpoint ({} bytes, offsets {}) in {} ms", length,
+                    routeAggregates.nextOffsets(), (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not restore analytics checkpoint {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.checkpoint.interval-ms:10000}",
+            initialDelayString = "${analytics.checkpoint.interval-ms:10000}")
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write(routeAggregates.encode().toBuffer());
+        } catch (IOException e) {
+            LOGGER.error("Analytics checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    // Listener containers are stopped before beans are destroyed, so this captures everything consumed
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    private void write(ByteBuffer payload) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int length = payload.remaining();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_BYTES + length);
+            mapped.putInt(MAGIC).putInt(VERSION).putInt(length).putInt(crc(payload.duplicate()));
+            mapped.put(payload);
+            mapped.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int crc(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
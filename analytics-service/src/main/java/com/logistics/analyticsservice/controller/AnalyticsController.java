@@ -35,19 +35,112 @@ public class AnalyticsController {
 package com.logistics.analyticsservice.controller;
 
 import com.logistics.analyticsservice.kafka.consumer.AnalyticsConsumer;
+import com.logistics.analyticsservice.matrix.OdMatrix;
+import com.logistics.analyticsservice.model.CardinalityEstimate;
+import com.logistics.analyticsservice.model.HeavyHitter;
+import com.logistics.analyticsservice.model.MatrixSlice;
+import com.logistics.analyticsservice.model.WeightQuantiles;
+import com.logistics.analyticsservice.model.WindowSnapshot;
+import com.logistics.analyticsservice.sketch.RouteSketches;
+import com.logistics.analyticsservice.sketch.SketchRegistry;
+import com.logistics.analyticsservice.stream.StatsStream;
+import com.logistics.analyticsservice.window.RouteWindows;
+import com.logistics.analyticsservice.window.TimeWindow;
+import com.logistics.analyticsservice.window.WindowMode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/analytics")
 @RequiredArgsConstructor
 public class AnalyticsController {
 
+    private static final int MAX_LANES = 1000;
+    private static final int MAX_MATRIX_CITIES = 500;
+
     private final AnalyticsConsumer analyticsConsumer;
+    private final RouteWindows routeWindows;
+    private final SketchRegistry sketchRegistry;
+    private final OdMatrix odMatrix;
+    private final StatsStream statsStream;
 
     @GetMapping("/stats")
-    public Map<String, Integer> getStats() {
+    public Map<String, Long> getStats() {
         return analyticsConsumer.getStats();
     }
-}
\ No newline at end of file
+
+    // Live /stats: a "snapshot" event, then "delta" events with only the cities that changed.
+    // EventSource reconnects send Last-Event-ID and resume from where they left off.
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStats(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return statsStream.subscribe(lastEventId);
+    }
+
+    // Approximate heavy hitters over all time, e.g. /top?dimension=lane&limit=10
+    @GetMapping("/top")
+    public ResponseEntity<List<HeavyHitter>> getTop(@RequestParam(defaultValue = "destination") String dimension,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        int hitters = Math.max(1, Math.min(limit, MAX_LANES));
+        RouteSketches sketches = sketchRegistry.merged();
+        return switch (dimension.toLowerCase()) {
+            case "destination" -> ResponseEntity.ok(sketches.topDestinations(hitters));
+            case "lane" -> ResponseEntity.ok(sketches.topLanes(hitters));
+            default -> ResponseEntity.badRequest().build();
+        };
+    }
+
+    // Distinct origins/destinations/lanes, plus distinct origins feeding one destination if it is given
+    @GetMapping("/cardinality")
+    public CardinalityEstimate getCardinality(@RequestParam(required = false) String destination) {
+        return sketchRegistry.merged().cardinality(destination);
+    }
+
+    @GetMapping("/weights")
+    public WeightQuantiles getWeightQuantiles(@RequestParam(defaultValue = "0.5,0.9,0.99") double[] q) {
+        return sketchRegistry.merged().weightQuantiles(q);
+    }
+
+    // Rows and columns of the origin-destination matrix, e.g. /matrix?origins=Cluj for one row,
+    // /matrix?destinations=Iasi for one column; omitted sides select every city (up to 500)
+    @GetMapping("/matrix")
+    public MatrixSlice getMatrix(@RequestParam(required = false) List<String> origins,
+                                 @RequestParam(required = false) List<String> destinations) {
+        return odMatrix.slice(origins, destinations, MAX_MATRIX_CITIES);
+    }
+
+    // Busiest lanes in a window, e.g. /windows/1h?mode=sliding&limit=10
+    @GetMapping("/windows/{window}")
+    public ResponseEntity<WindowSnapshot> getWindow(@PathVariable String window,
+                                                    @RequestParam(defaultValue = "sliding") String mode,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        Optional<TimeWindow> timeWindow = TimeWindow.parse(window);
+        Optional<WindowMode> windowMode = WindowMode.parse(mode);
+        if (timeWindow.isEmpty() || windowMode.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int lanes = Math.max(1, Math.min(limit, MAX_LANES));
+        return ResponseEntity.ok(routeWindows.top(timeWindow.get(), windowMode.get(), lanes,
+                System.currentTimeMillis()));
+    }
+
+    // Count for a single lane, e.g. /windows/1d/lane?origin=Cluj&destination=Iasi&mode=tumbling
+    @GetMapping("/windows/{window}/lane")
+    public ResponseEntity<WindowSnapshot> getLaneWindow(@PathVariable String window,
+                                                        @RequestParam String origin,
+                                                        @RequestParam String destination,
+                                                        @RequestParam(defaultValue = "sliding") String mode) {
+        Optional<TimeWindow> timeWindow = TimeWindow.parse(window);
+        Optional<WindowMode> windowMode = WindowMode.parse(mode);
+        if (timeWindow.isEmpty() || windowMode.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(routeWindows.lane(timeWindow.get(), windowMode.get(),
+                RouteWindows.laneKey(origin, destination), System.currentTimeMillis()));
+    }
+}
@@ -1,18 +1,38 @@
 package com.logistics.analyticsservice.kafka.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
 
 @Configuration
 public class KafkaConfig {
 
+    public static final String ROUTE_TOPIC = "logistics_routes";
+    public static final int ROUTE_PARTITIONS = 3;
+    public static final String BATCH_CONTAINER_FACTORY = "batchContainerFactory";
+
     @Bean
     public NewTopic routeTopic() {
-        return TopicBuilder.name("logistics_routes")
-                .partitions(3)
+        return TopicBuilder.name(ROUTE_TOPIC)
+                .partitions(ROUTE_PARTITIONS)
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    // One container thread per partition; each thread gets whole polls (see max-poll-records) per listener call
+    @Bean(name = BATCH_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(ROUTE_PARTITIONS);
+        return factory;
+    }
+}
@@ -1,32 +1,91 @@
 package com.logistics.analyticsservice.kafka.consumer;
 
-import com.logistics.analyticsservice.model.RouteEvent;
+import com.logistics.analyticsservice.aggregate.RouteAggregates;
+import com.logistics.analyticsservice.aggregate.RouteBatch;
+import com.logistics.analyticsservice.kafka.config.KafkaConfig;
+import com.logistics.contract.RouteEvent;
+import com.logistics.contract.metrics.DispatchLagMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-public class AnalyticsConsumer {
+public class AnalyticsConsumer implements ConsumerSeekAware {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsConsumer.class);
 
-    // Stores "City Name" -> "Number of Shipments Involved"
-    private final Map<String, Integer> cityPopularityIndex = new ConcurrentHashMap<>();
+    private final RouteAggregates routeAggregates;
+    private final DispatchLagMetrics dispatchLagMetrics;
+    private final Counter skipped;
 
-    @KafkaListener(topics = "logistics_routes", groupId = "analytics_group")
-    public void consume(RouteEvent event) {
+    public AnalyticsConsumer(RouteAggregates routeAggregates, DispatchLagMetrics dispatchLagMetrics,
+                             MeterRegistry meterRegistry) {
+        this.routeAggregates = routeAggregates;
+        this.dispatchLagMetrics = dispatchLagMetrics;
+        this.skipped = Counter.builder("logistics.analytics.route.skipped")
+                .description("Route events dropped because origin or destination was missing")
+                .register(meterRegistry);
+    }
+
+    // Group id comes from spring.kafka.consumer.group-id. Each container thread owns its partitions, aggregates
+    // a whole poll locally and merges it into shared state once.
+    @KafkaListener(topics = KafkaConfig.ROUTE_TOPIC, containerFactory = KafkaConfig.BATCH_CONTAINER_FACTORY)
+    public void consume(List<ConsumerRecord<String, RouteEvent>> records) {
+        Map<Integer, RouteBatch> batches = new HashMap<>(4);
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, RouteEvent> record : records) {
+            RouteBatch batch = batches.computeIfAbsent(record.partition(), p -> new RouteBatch());
+            batch.markOffset(record.offset());
+            RouteEvent event = record.value();
+            if (event == null) {
+                continue;
+            }
+            dispatchLagMetrics.record(event.getTimestamp());
+            // A route without both ends would land under a null or empty city in every aggregate
+            if (isBlank(event.getOrigin()) || isBlank(event.getDestination())) {
+                skipped.increment();
+                LOGGER.debug("Skipping route event without origin or destination at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            // Events from producers that don't stamp a time are windowed by arrival
+            long timestamp = event.getTimestamp() > 0 ? event.getTimestamp() : now;
+            batch.add(event.getOrigin(), event.getDestination(), timestamp, event.getWeight());
+        }
+
+        batches.forEach(routeAggregates::apply);
 
-        cityPopularityIndex.merge(event.getDestination(), 1, Integer::sum);
+        LOGGER.debug("Aggregated {} route events from {} partition(s)", records.size(), batches.size());
+    }
+
+    // Resume each partition right after the last event the (possibly restored) aggregates contain, rather than
+    // at the group's committed offset, so nothing is counted twice or skipped
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<Integer, Long> nextOffsets = routeAggregates.nextOffsets();
+        assignments.keySet().forEach(partition -> {
+            Long offset = nextOffsets.get(partition.partition());
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        });
+    }
 
-        LOGGER.info("New dispatch to {}. Total for city: {}",
-                event.getDestination(), cityPopularityIndex.get(event.getDestination()));
+    private static boolean isBlank(String city) {
+        return city == null || city.isBlank();
     }
 
-    public Map<String, Integer> getStats() {
-        return cityPopularityIndex;
+    public Map<String, Long> getStats() {
+        return routeAggregates.cityCounts();
     }
-}
\ No newline at end of file
+}
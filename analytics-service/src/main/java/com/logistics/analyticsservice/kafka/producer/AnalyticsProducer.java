@@ -1,6 +1,6 @@
 /*package com.logistics.analyticsservice.kafka.producer;
 
-import com.logistics.analyticsservice.model.RouteEvent;
+import com.logistics.contract.RouteEvent;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
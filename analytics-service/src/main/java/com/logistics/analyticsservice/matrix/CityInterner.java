@@ -0,0 +1,48 @@
+package com.logistics.analyticsservice.matrix;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dense int ids for city names, handed out in first-seen order and never reused
+public final class CityInterner {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int size;
+
+    public int intern(String city) {
+        Integer id = ids.get(city);
+        return id != null ? id : register(city);
+    }
+
+    // Returns -1 for a city that has never been seen
+    public int idOf(String city) {
+        Integer id = ids.get(city);
+        return id != null ? id : -1;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int register(String city) {
+        Integer existing = ids.get(city);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+        }
+        names[id] = city;
+        size = id + 1;
+        // Published last, so a reader that finds the id also finds the name
+        ids.put(city, id);
+        return id;
+    }
+}
@@ -0,0 +1,181 @@
+package com.logistics.analyticsservice.matrix;
+
+import com.logistics.analyticsservice.aggregate.RouteBatch;
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.model.MatrixSlice;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Origin x destination counts, total weight and last-seen time over interned city ids. Each origin row holds
+// primitive arrays indexed by destination id that grow in fixed chunks, so rows stay as short as the largest
+// destination they have actually shipped to and nothing on the update path is boxed.
+@Component
+public class OdMatrix {
+
+    private static final int CHUNK = 64;
+
+    private final CityInterner cities = new CityInterner();
+    private volatile AtomicReferenceArray<Row> rows = new AtomicReferenceArray<>(CHUNK);
+
+    public void apply(RouteBatch batch) {
+        for (RouteBatch.Lane lane : batch.lanes()) {
+            int origin = cities.intern(lane.origin());
+            int destination = cities.intern(lane.destination());
+            row(origin).add(destination, lane.count(), lane.weightKg(), lane.lastSeen());
+        }
+    }
+
+    // Null or empty origins / destinations select every known city, in id order
+    public MatrixSlice slice(List<String> origins, List<String> destinations, int maxCities) {
+        int[] originIds = resolve(origins, maxCities);
+        int[] destinationIds = resolve(destinations, maxCities);
+
+        long[][] counts = new long[originIds.length][destinationIds.length];
+        double[][] weights = new double[originIds.length][destinationIds.length];
+        long[][] lastSeen = new long[originIds.length][destinationIds.length];
+        AtomicReferenceArray<Row> current = rows;
+        for (int o = 0; o < originIds.length; o++) {
+            Row row = originIds[o] >= 0 && originIds[o] < current.length() ? current.get(originIds[o]) : null;
+            if (row != null) {
+                row.copyTo(destinationIds, counts[o], weights[o], lastSeen[o]);
+            }
+        }
+        return new MatrixSlice(names(originIds, origins), names(destinationIds, destinations), counts, weights,
+                lastSeen);
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        int cityCount = cities.size();
+        out.writeInt(cityCount);
+        for (int id = 0; id < cityCount; id++) {
+            out.writeString(cities.nameOf(id));
+        }
+        AtomicReferenceArray<Row> current = rows;
+        for (int id = 0; id < cityCount; id++) {
+            Row row = id < current.length() ? current.get(id) : null;
+            if (row == null) {
+                out.writeInt(0);
+            } else {
+                row.writeTo(out);
+            }
+        }
+    }
+
+    // Only called before consumption starts, on an empty matrix
+    public void restore(SnapshotInput in) {
+        int cityCount = in.readInt();
+        int[] ids = new int[cityCount];
+        for (int i = 0; i < cityCount; i++) {
+            ids[i] = cities.intern(in.readString());
+        }
+        for (int i = 0; i < cityCount; i++) {
+            int columns = in.readInt();
+            for (int c = 0; c < columns; c++) {
+                long count = in.readLong();
+                double weight = in.readDouble();
+                long seen = in.readLong();
+                if (count > 0) {
+                    row(ids[i]).add(ids[c], count, weight, seen);
+                }
+            }
+        }
+    }
+
+    private Row row(int origin) {
+        AtomicReferenceArray<Row> current = rows;
+        Row row = origin < current.length() ? current.get(origin) : null;
+        if (row != null) {
+            return row;
+        }
+        // Rows are only created or copied under the lock, so growing the table cannot lose one
+        synchronized (this) {
+            current = rows;
+            if (origin >= current.length()) {
+                AtomicReferenceArray<Row> grown = new AtomicReferenceArray<>(roundUp(origin + 1));
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                current = grown;
+                rows = grown;
+            }
+            row = current.get(origin);
+            if (row == null) {
+                row = new Row();
+                current.set(origin, row);
+            }
+            return row;
+        }
+    }
+
+    private int[] resolve(List<String> names, int maxCities) {
+        if (names == null || names.isEmpty()) {
+            int[] all = new int[Math.min(cities.size(), maxCities)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] ids = new int[Math.min(names.size(), maxCities)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = cities.idOf(names.get(i));
+        }
+        return ids;
+    }
+
+    private List<String> names(int[] ids, List<String> requested) {
+        List<String> names = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            names.add(ids[i] >= 0 ? cities.nameOf(ids[i]) : requested.get(i));
+        }
+        return names;
+    }
+
+    private static int roundUp(int size) {
+        return (size + CHUNK - 1) / CHUNK * CHUNK;
+    }
+
+    // Partition threads touching the same origin serialise on the row; different origins never contend
+    private static final class Row {
+        private long[] counts = new long[CHUNK];
+        private double[] weights = new double[CHUNK];
+        private long[] lastSeen = new long[CHUNK];
+
+        private synchronized void add(int destination, long count, double weight, long seen) {
+            if (destination >= counts.length) {
+                int length = roundUp(destination + 1);
+                counts = Arrays.copyOf(counts, length);
+                weights = Arrays.copyOf(weights, length);
+                lastSeen = Arrays.copyOf(lastSeen, length);
+            }
+            counts[destination] += count;
+            weights[destination] += weight;
+            lastSeen[destination] = Math.max(lastSeen[destination], seen);
+        }
+
+        private synchronized void copyTo(int[] destinations, long[] countsOut, double[] weightsOut,
+                                         long[] lastSeenOut) {
+            for (int d = 0; d < destinations.length; d++) {
+                int id = destinations[d];
+                if (id >= 0 && id < counts.length) {
+                    countsOut[d] = counts[id];
+                    weightsOut[d] = weights[id];
+                    lastSeenOut[d] = lastSeen[id];
+                }
+            }
+        }
+
+        private synchronized void writeTo(SnapshotOutput out) {
+            out.writeInt(counts.length);
+            for (int d = 0; d < counts.length; d++) {
+                out.writeLong(counts[d]);
+                out.writeDouble(weights[d]);
+                out.writeLong(lastSeen[d]);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.logistics.analyticsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardinalityEstimate {
+    private long distinctOrigins;
+    private long distinctDestinations;
+    private long distinctLanes;
+    private double standardError;               // Relative, e.g. 0.008 = 0.8%
+    private String destination;
+    private Long originsForDestination;         // Null unless the destination is a tracked heavy hitter
+    private Double destinationStandardError;
+}
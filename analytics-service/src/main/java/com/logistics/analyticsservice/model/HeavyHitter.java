@@ -0,0 +1,14 @@
+package com.logistics.analyticsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeavyHitter {
+    private String key;
+    private long count;     // Upper bound on the true count
+    private long error;     // The true count is at least count - error
+}
@@ -7,8 +7,7 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class RouteEvent {
-    private String origin;
-    private String destination;
-    private long timestamp;
-}
\ No newline at end of file
+public class LaneCount {
+    private String lane;    // "origin->destination"
+    private long count;
+}
@@ -0,0 +1,19 @@
+package com.logistics.analyticsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Row i / column j of every array is origins[i] -> destinations[j]
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MatrixSlice {
+    private List<String> origins;
+    private List<String> destinations;
+    private long[][] counts;
+    private double[][] weightKg;
+    private long[][] lastSeen;      // Epoch millis of the newest event, 0 if none
+}
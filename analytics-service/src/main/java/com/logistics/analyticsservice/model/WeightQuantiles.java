@@ -0,0 +1,16 @@
+package com.logistics.analyticsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WeightQuantiles {
+    private long samples;
+    private Double maxKg;
+    private Map<String, Double> quantilesKg;    // "p50", "p99.9" -> kg
+}
@@ -0,0 +1,21 @@
+package com.logistics.analyticsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WindowSnapshot {
+    private String window;
+    private String mode;
+    private long from;          // Epoch millis, inclusive
+    private long to;            // Epoch millis, exclusive
+    private long total;         // All lanes in the range, not just the ones listed
+    private List<LaneCount> lanes;
+    private long watermark;     // Events older than this are counted as late and dropped
+    private long lateEvents;
+}
@@ -0,0 +1,22 @@
+package com.logistics.analyticsservice.sketch;
+
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    // FNV-1a over the chars, finished with the MurmurHash3 64-bit mixer so every output bit is usable by HLL
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53b94cdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,105 @@
+package com.logistics.analyticsservice.sketch;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+
+// DDSketch-style quantiles: log-spaced bins over a fixed value range, so every reported quantile is within
+// the configured relative accuracy of a real sample and memory does not depend on the number of samples
+public final class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final double maxValue;
+    private final double gamma;
+    private final double logGamma;
+    private final int offset;
+    private final long[] bins;
+    private long zeroCount;
+    private long count;
+    private double max;
+
+    public QuantileSketch(double relativeAccuracy, double minValue, double maxValue) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1 || minValue <= 0 || maxValue <= minValue) {
+            throw new IllegalArgumentException("Invalid quantile sketch parameters");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.offset = index(minValue);
+        this.bins = new long[index(maxValue) - offset + 1];
+    }
+
+    public void add(double value) {
+        count++;
+        max = Math.max(max, value);
+        if (value < minValue) {
+            zeroCount++;
+            return;
+        }
+        bins[index(Math.min(value, maxValue)) - offset]++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(Math.max(0, Math.min(1, q)) * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen > rank) {
+                return 2 * Math.pow(gamma, i + offset) / (gamma + 1);
+            }
+        }
+        return max;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.bins.length != bins.length || other.offset != offset || other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge quantile sketches with different parameters");
+        }
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] += other.bins[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeDouble(relativeAccuracy);
+        out.writeDouble(minValue);
+        out.writeDouble(maxValue);
+        out.writeLong(zeroCount);
+        out.writeLong(count);
+        out.writeDouble(max);
+        out.writeLongs(bins, bins.length);
+    }
+
+    public static QuantileSketch readFrom(SnapshotInput in) {
+        QuantileSketch sketch = new QuantileSketch(in.readDouble(), in.readDouble(), in.readDouble());
+        sketch.zeroCount = in.readLong();
+        sketch.count = in.readLong();
+        sketch.max = in.readDouble();
+        long[] bins = in.readLongs();
+        System.arraycopy(bins, 0, sketch.bins, 0, Math.min(bins.length, sketch.bins.length));
+        return sketch;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+}
@@ -0,0 +1,144 @@
+package com.logistics.analyticsservice.sketch;
+
+import com.logistics.analyticsservice.aggregate.RouteBatch;
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.model.CardinalityEstimate;
+import com.logistics.analyticsservice.model.HeavyHitter;
+import com.logistics.analyticsservice.model.WeightQuantiles;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// All sketches for one partition's share of the route stream. Memory is fixed by the settings: distinct
+// origins are only tracked per destination while that destination is one of the top-K heavy hitters.
+public final class RouteSketches {
+
+    private final int topK;
+    private final int originHllPrecision;
+    private SpaceSaving destinations;
+    private SpaceSaving lanes;
+    private final Map<String, HyperLogLog> originsByDestination = new HashMap<>();
+    private final HyperLogLog distinctOrigins;
+    private final HyperLogLog distinctDestinations;
+    private final HyperLogLog distinctLanes;
+    private final QuantileSketch weights;
+
+    RouteSketches(int topK, int hllPrecision, int originHllPrecision, QuantileSketch weights) {
+        this(topK, originHllPrecision, new SpaceSaving(topK), new SpaceSaving(topK), new HyperLogLog(hllPrecision),
+                new HyperLogLog(hllPrecision), new HyperLogLog(hllPrecision), weights);
+    }
+
+    private RouteSketches(int topK, int originHllPrecision, SpaceSaving destinations, SpaceSaving lanes,
+                          HyperLogLog distinctOrigins, HyperLogLog distinctDestinations, HyperLogLog distinctLanes,
+                          QuantileSketch weights) {
+        this.topK = topK;
+        this.originHllPrecision = originHllPrecision;
+        this.destinations = destinations;
+        this.lanes = lanes;
+        this.distinctOrigins = distinctOrigins;
+        this.distinctDestinations = distinctDestinations;
+        this.distinctLanes = distinctLanes;
+        this.weights = weights;
+    }
+
+    public synchronized void apply(RouteBatch batch) {
+        batch.destinations().forEach((destination, count) -> {
+            String evicted = destinations.offer(destination, count[0]);
+            if (evicted != null) {
+                originsByDestination.remove(evicted);
+            }
+            distinctDestinations.add(destination);
+        });
+        for (RouteBatch.Lane lane : batch.lanes()) {
+            // A destination offered earlier in the batch may already have been evicted again
+            if (destinations.contains(lane.destination())) {
+                originsByDestination.computeIfAbsent(lane.destination(), d -> new HyperLogLog(originHllPrecision))
+                        .add(lane.origin());
+            }
+            lanes.offer(lane.key(), lane.count());
+            distinctOrigins.add(lane.origin());
+            distinctLanes.add(lane.key());
+        }
+        double[] batchWeights = batch.weights();
+        for (int i = 0; i < batch.weightCount(); i++) {
+            weights.add(batchWeights[i]);
+        }
+    }
+
+    // Folds this partition's sketches into the target; the target must come from the same settings
+    public synchronized void mergeInto(RouteSketches target) {
+        target.destinations = target.destinations.merged(destinations);
+        target.lanes = target.lanes.merged(lanes);
+        originsByDestination.forEach((destination, origins) ->
+                target.originsByDestination.computeIfAbsent(destination, d -> new HyperLogLog(originHllPrecision))
+                        .merge(origins));
+        target.originsByDestination.keySet().removeIf(destination -> !target.destinations.contains(destination));
+        target.distinctOrigins.merge(distinctOrigins);
+        target.distinctDestinations.merge(distinctDestinations);
+        target.distinctLanes.merge(distinctLanes);
+        target.weights.merge(weights);
+    }
+
+    // Callers hold the aggregates' snapshot lock, so no batch is being applied concurrently
+    public synchronized void writeTo(SnapshotOutput out) {
+        out.writeInt(topK);
+        out.writeInt(originHllPrecision);
+        destinations.writeTo(out);
+        lanes.writeTo(out);
+        distinctOrigins.writeTo(out);
+        distinctDestinations.writeTo(out);
+        distinctLanes.writeTo(out);
+        weights.writeTo(out);
+        out.writeInt(originsByDestination.size());
+        originsByDestination.forEach((destination, origins) -> {
+            out.writeString(destination);
+            origins.writeTo(out);
+        });
+    }
+
+    public static RouteSketches readFrom(SnapshotInput in) {
+        RouteSketches sketches = new RouteSketches(in.readInt(), in.readInt(), SpaceSaving.readFrom(in),
+                SpaceSaving.readFrom(in), HyperLogLog.readFrom(in), HyperLogLog.readFrom(in),
+                HyperLogLog.readFrom(in), QuantileSketch.readFrom(in));
+        int destinations = in.readInt();
+        for (int i = 0; i < destinations; i++) {
+            sketches.originsByDestination.put(in.readString(), HyperLogLog.readFrom(in));
+        }
+        return sketches;
+    }
+
+    public synchronized List<HeavyHitter> topDestinations(int limit) {
+        return destinations.top(Math.min(limit, topK));
+    }
+
+    public synchronized List<HeavyHitter> topLanes(int limit) {
+        return lanes.top(Math.min(limit, topK));
+    }
+
+    public synchronized CardinalityEstimate cardinality(String destination) {
+        Long originsForDestination = null;
+        Double destinationError = null;
+        if (destination != null) {
+            HyperLogLog origins = originsByDestination.get(destination);
+            if (origins != null) {
+                originsForDestination = origins.estimate();
+                destinationError = origins.standardError();
+            }
+        }
+        return new CardinalityEstimate(distinctOrigins.estimate(), distinctDestinations.estimate(),
+                distinctLanes.estimate(), distinctOrigins.standardError(), destination, originsForDestination,
+                destinationError);
+    }
+
+    public synchronized WeightQuantiles weightQuantiles(double[] quantiles) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double q : quantiles) {
+            values.put("p" + BigDecimal.valueOf(q * 100).stripTrailingZeros().toPlainString(), weights.count() == 0 ? null : weights.quantile(q));
+        }
+        return new WeightQuantiles(weights.count(), weights.count() == 0 ? null : weights.max(), values);
+    }
+}
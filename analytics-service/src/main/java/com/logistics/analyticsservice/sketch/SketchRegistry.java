@@ -0,0 +1,60 @@
+package com.logistics.analyticsservice.sketch;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One set of sketches per Kafka partition, so a partition's listener thread never contends with another's;
+// queries merge them on read
+@Component
+@RequiredArgsConstructor
+public class SketchRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SketchRegistry.class);
+
+    private final SketchSettings settings;
+    private final Map<Integer, RouteSketches> partitions = new ConcurrentHashMap<>();
+
+    public RouteSketches forPartition(int partition) {
+        return partitions.computeIfAbsent(partition, p -> settings.newSketches());
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeString(settings.fingerprint());
+        out.writeInt(partitions.size());
+        partitions.forEach((partition, sketches) -> {
+            out.writeInt(partition);
+            sketches.writeTo(out);
+        });
+    }
+
+    public void restore(SnapshotInput in) {
+        String fingerprint = in.readString();
+        boolean compatible = fingerprint.equals(settings.fingerprint());
+        partitions.clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int partition = in.readInt();
+            RouteSketches sketches = RouteSketches.readFrom(in);
+            if (compatible) {
+                partitions.put(partition, sketches);
+            }
+        }
+        if (!compatible) {
+            LOGGER.warn("Sketch settings changed since the checkpoint ({} -> {}); sketches restart empty",
+                    fingerprint, settings.fingerprint());
+        }
+    }
+
+    public RouteSketches merged() {
+        RouteSketches merged = settings.newSketches();
+        partitions.values().forEach(sketches -> sketches.mergeInto(merged));
+        return merged;
+    }
+}
@@ -0,0 +1,37 @@
+package com.logistics.analyticsservice.sketch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SketchSettings {
+
+    @Value("${analytics.sketch.top-k:1000}")
+    private int topK;
+
+    @Value("${analytics.sketch.hll-precision:14}")
+    private int hllPrecision;
+
+    @Value("${analytics.sketch.origin-hll-precision:8}")
+    private int originHllPrecision;
+
+    @Value("${analytics.sketch.weight-relative-accuracy:0.01}")
+    private double weightRelativeAccuracy;
+
+    @Value("${analytics.sketch.weight-min-kg:0.01}")
+    private double weightMinKg;
+
+    @Value("${analytics.sketch.weight-max-kg:1000000}")
+    private double weightMaxKg;
+
+    // Sketches restored from a checkpoint are only reused if they were built with the same settings
+    public String fingerprint() {
+        return topK + "/" + hllPrecision + "/" + originHllPrecision + "/" + weightRelativeAccuracy + "/"
+                + weightMinKg + "/" + weightMaxKg;
+    }
+
+    public RouteSketches newSketches() {
+        return new RouteSketches(topK, hllPrecision, originHllPrecision,
+                new QuantileSketch(weightRelativeAccuracy, weightMinKg, weightMaxKg));
+    }
+}
@@ -0,0 +1,190 @@
+package com.logistics.analyticsservice.sketch;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.model.HeavyHitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Space-Saving top-K over a fixed number of counters, kept in an indexed min-heap so an update is O(log k).
+// A reported count overestimates the true one by at most its error, and any key whose true count exceeds
+// total / capacity is guaranteed to be tracked.
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Space-Saving capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    // Returns the key that was evicted to make room, or null
+    public String offer(String key, long weight) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+            return null;
+        }
+        if (size < capacity) {
+            int slot = size++;
+            set(slot, key, weight, 0);
+            siftUp(slot);
+            return null;
+        }
+        String evicted = keys[0];
+        positions.remove(evicted);
+        long floor = counts[0];
+        set(0, key, floor + weight, floor);
+        siftDown(0);
+        return evicted;
+    }
+
+    public boolean contains(String key) {
+        return positions.containsKey(key);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Combines two summaries (Agarwal et al., "Mergeable Summaries"): a key missing from a full summary may
+    // have occurred up to that summary's minimum count, so the minimum is added to both its count and error
+    public SpaceSaving merged(SpaceSaving other) {
+        Map<String, long[]> combined = new HashMap<>();
+        for (String key : positions.keySet()) {
+            combined.put(key, null);
+        }
+        for (String key : other.positions.keySet()) {
+            combined.put(key, null);
+        }
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(combined.size());
+        for (String key : combined.keySet()) {
+            long[] countAndError = {countOrFloor(key) + other.countOrFloor(key),
+                    errorOrFloor(key) + other.errorOrFloor(key)};
+            entries.add(Map.entry(key, countAndError));
+        }
+        entries.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed());
+
+        SpaceSaving result = new SpaceSaving(capacity);
+        for (int i = 0; i < Math.min(capacity, entries.size()); i++) {
+            long[] countAndError = entries.get(i).getValue();
+            result.set(i, entries.get(i).getKey(), countAndError[0], countAndError[1]);
+        }
+        result.size = Math.min(capacity, entries.size());
+        for (int i = result.size / 2 - 1; i >= 0; i--) {
+            result.siftDown(i);
+        }
+        return result;
+    }
+
+    public List<HeavyHitter> top(int limit) {
+        List<HeavyHitter> hitters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            hitters.add(new HeavyHitter(keys[i], counts[i], errors[i]));
+        }
+        hitters.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed());
+        return hitters.size() > limit ? new ArrayList<>(hitters.subList(0, limit)) : hitters;
+    }
+
+    // Written in heap order, so reading it back needs no re-heapify
+    public void writeTo(SnapshotOutput out) {
+        out.writeInt(capacity);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeString(keys[i]);
+            out.writeLong(counts[i]);
+            out.writeLong(errors[i]);
+        }
+    }
+
+    public static SpaceSaving readFrom(SnapshotInput in) {
+        SpaceSaving summary = new SpaceSaving(in.readInt());
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            summary.set(i, in.readString(), in.readLong(), in.readLong());
+        }
+        summary.size = size;
+        return summary;
+    }
+
+    private long countOrFloor(String key) {
+        Integer position = positions.get(key);
+        return position != null ? counts[position] : floor();
+    }
+
+    private long errorOrFloor(String key) {
+        Integer position = positions.get(key);
+        return position != null ? errors[position] : floor();
+    }
+
+    private long floor() {
+        return size == capacity ? counts[0] : 0;
+    }
+
+    private void set(int slot, String key, long count, long error) {
+        keys[slot] = key;
+        counts[slot] = count;
+        errors[slot] = error;
+        positions.put(key, slot);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int smallest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == slot) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        long count = counts[a];
+        long error = errors[a];
+        keys[a] = keys[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        keys[b] = key;
+        counts[b] = count;
+        errors[b] = error;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+}
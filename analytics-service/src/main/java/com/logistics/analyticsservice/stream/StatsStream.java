@@ -0,0 +1,161 @@
+package com.logistics.analyticsservice.stream;
+
+import com.logistics.analyticsservice.aggregate.RouteAggregates;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Pushes city stats over Server-Sent Events: one snapshot on connect, then only the cities that changed,
+// coalesced per tick. Each tick's changed keys are kept in a bounded ring; a subscriber is just a cursor into
+// it, so a slow or reconnecting client receives one compacted delta covering everything it missed (or a fresh
+// snapshot once it has fallen out of the ring) and never builds up a queue.
+@Component
+public class StatsStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatsStream.class);
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String DELTA_EVENT = "delta";
+
+    // Event ids are "<epoch>-<tick>"; a client coming back after a restart gets a snapshot instead of a resume
+    private final long epoch = System.currentTimeMillis();
+    private final RouteAggregates routeAggregates;
+    private final AtomicReferenceArray<Tick> ticks;
+    private final AtomicLong latestTick = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final long timeoutMs;
+
+    public StatsStream(RouteAggregates routeAggregates,
+                       @Value("${analytics.stream.retention-ticks:300}") int retentionTicks,
+                       @Value("${analytics.stream.sender-threads:2}") int senderThreads,
+                       @Value("${analytics.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.routeAggregates = routeAggregates;
+        this.ticks = new AtomicReferenceArray<>(retentionTicks);
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stats-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, resumeCursor(lastEventId));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.stream.tick-ms:1000}")
+    public void tick() {
+        Set<String> changed = routeAggregates.drainChangedCities();
+        if (changed.isEmpty()) {
+            return;
+        }
+        long tick = latestTick.get() + 1;
+        ticks.set((int) (tick % ticks.length()), new Tick(tick, changed));
+        latestTick.set(tick);
+        subscribers.forEach(this::schedule);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    // At most one send per subscriber is in flight; whatever arrives meanwhile is folded into its next send
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.cursor < latestTick.get() || subscriber.cursor < 0) {
+            if (subscriber.sending.compareAndSet(false, true)) {
+                senders.execute(() -> deliver(subscriber));
+            }
+        }
+    }
+
+    private void deliver(Subscriber subscriber) {
+        try {
+            long target = latestTick.get();
+            Set<String> changed = subscriber.cursor < 0 ? null : changedSince(subscriber.cursor, target);
+            String id = epoch + "-" + target;
+            if (changed == null) {
+                send(subscriber, SNAPSHOT_EVENT, id, routeAggregates.cityCounts());
+            } else {
+                send(subscriber, DELTA_EVENT, id, routeAggregates.cityCounts(changed));
+            }
+            subscriber.cursor = target;
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            LOGGER.debug("Dropping stats subscriber: {}", e.getMessage());
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // A tick may have landed while we were sending and found us busy
+        schedule(subscriber);
+    }
+
+    private void send(Subscriber subscriber, String event, String id, Map<String, Long> data) throws IOException {
+        subscriber.emitter.send(SseEmitter.event().name(event).id(id).data(data));
+    }
+
+    // Union of the keys changed in (cursor, target], or null if part of that range has left the ring
+    private Set<String> changedSince(long cursor, long target) {
+        Set<String> changed = new HashSet<>();
+        for (long t = cursor + 1; t <= target; t++) {
+            Tick tick = ticks.get((int) (t % ticks.length()));
+            if (tick == null || tick.number != t) {
+                return null;
+            }
+            changed.addAll(tick.changed);
+        }
+        return changed;
+    }
+
+    // -1 asks for a snapshot
+    private long resumeCursor(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            long tick = Long.parseLong(lastEventId.substring(lastEventId.indexOf('-') + 1));
+            return tick <= latestTick.get() && latestTick.get() - tick < ticks.length() ? tick : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Tick(long number, Set<String> changed) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.logistics.analyticsservice.window;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed ring of time buckets covering two window lengths, so both the sliding window and the last complete
+// tumbling window can be answered. A slot is recycled by the first event of a newer period, which is how old
+// data expires: no sweeper, no scan.
+final class BucketRing {
+
+    static final String OVERFLOW_KEY = "(other)";
+
+    private final long bucketMs;
+    private final int maxKeysPerBucket;
+    private final AtomicReferenceArray<Bucket> slots;
+
+    BucketRing(TimeWindow window, int maxKeysPerBucket) {
+        this.bucketMs = window.bucketMs();
+        this.maxKeysPerBucket = maxKeysPerBucket;
+        this.slots = new AtomicReferenceArray<>(2 * window.bucketsPerWindow());
+    }
+
+    // Returns false when the event's bucket has already been recycled for a newer period
+    boolean add(String key, long timestamp, long amount) {
+        return add(key, timestamp, amount, maxKeysPerBucket);
+    }
+
+    private boolean add(String key, long timestamp, long amount, int maxKeys) {
+        long start = timestamp - Math.floorMod(timestamp, bucketMs);
+        int index = (int) Math.floorMod(start / bucketMs, (long) slots.length());
+        while (true) {
+            Bucket bucket = slots.get(index);
+            if (bucket != null && bucket.start == start) {
+                bucket.add(key, amount, maxKeys);
+                return true;
+            }
+            if (bucket != null && bucket.start > start) {
+                return false;
+            }
+            slots.compareAndSet(index, bucket, new Bucket(start));
+        }
+    }
+
+    // Sums every bucket starting in [from, to)
+    Map<String, Long> sum(long from, long to) {
+        Map<String, Long> totals = new HashMap<>();
+        for (int i = 0; i < slots.length(); i++) {
+            Bucket bucket = slots.get(i);
+            if (bucket != null && bucket.start >= from && bucket.start < to) {
+                bucket.counts.forEach((key, count) -> totals.merge(key, count.sum(), Long::sum));
+            }
+        }
+        return totals;
+    }
+
+    long count(String key, long from, long to) {
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            Bucket bucket = slots.get(i);
+            if (bucket != null && bucket.start >= from && bucket.start < to) {
+                LongAdder count = bucket.counts.get(key);
+                if (count != null) {
+                    total += count.sum();
+                }
+            }
+        }
+        return total;
+    }
+
+    void writeTo(SnapshotOutput out) {
+        int buckets = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                buckets++;
+            }
+        }
+        out.writeInt(buckets);
+        for (int i = 0; i < slots.length(); i++) {
+            Bucket bucket = slots.get(i);
+            if (bucket != null) {
+                out.writeLong(bucket.start);
+                out.writeInt(bucket.counts.size());
+                bucket.counts.forEach((key, count) -> {
+                    out.writeString(key);
+                    out.writeLong(count.sum());
+                });
+            }
+        }
+    }
+
+    // Buckets go through add(), so a snapshot taken with a different bucket layout still lands correctly.
+    // The key cap was applied when the counts were first taken; re-applying it could shuffle keys into overflow.
+    void restore(SnapshotInput in) {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        int buckets = in.readInt();
+        for (int i = 0; i < buckets; i++) {
+            long start = in.readLong();
+            int keys = in.readInt();
+            for (int k = 0; k < keys; k++) {
+                add(in.readString(), start, in.readLong(), Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final long start;
+        private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private Bucket(long start) {
+            this.start = start;
+        }
+
+        // Caps distinct keys per bucket so a flood of unique lanes cannot grow memory past the configured bound
+        private void add(String key, long amount, int maxKeys) {
+            LongAdder count = counts.get(key);
+            if (count == null) {
+                String target = counts.size() < maxKeys ? key : OVERFLOW_KEY;
+                count = counts.computeIfAbsent(target, k -> new LongAdder());
+            }
+            count.add(amount);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.logistics.analyticsservice.window;
+
+import com.logistics.analyticsservice.aggregate.RouteBatch;
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.model.LaneCount;
+import com.logistics.analyticsservice.model.WindowSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-lane shipment counts over 1 min / 1 h / 1 day windows, bucketed by event time.
+// Memory is bounded by window count x buckets x max keys per bucket, however long the service runs.
+// Each partition tracks its own newest event time and the watermark is the slowest of them, so a partition
+// that runs ahead (or a producer with a fast clock) cannot push every other partition's events into "late".
+@Component
+public class RouteWindows {
+
+    private final Map<TimeWindow, BucketRing> rings = new EnumMap<>(TimeWindow.class);
+    private final long allowedLatenessMs;
+    private final long maxClockSkewMs;
+    private final Map<Integer, AtomicLong> maxEventTimes = new ConcurrentHashMap<>();
+    private final LongAdder lateEvents = new LongAdder();
+
+    public RouteWindows(@Value("${analytics.window.allowed-lateness-ms:30000}") long allowedLatenessMs,
+                        @Value("${analytics.window.max-clock-skew-ms:5000}") long maxClockSkewMs,
+                        @Value("${analytics.window.max-keys-per-bucket:10000}") int maxKeysPerBucket) {
+        this.allowedLatenessMs = allowedLatenessMs;
+        this.maxClockSkewMs = maxClockSkewMs;
+        for (TimeWindow window : TimeWindow.values()) {
+            rings.put(window, new BucketRing(window, maxKeysPerBucket));
+        }
+    }
+
+    // Same lane key the shipping-service uses for the Kafka record key
+    public static String laneKey(String origin, String destination) {
+        return origin + "->" + destination;
+    }
+
+    public void record(int partition, String lane, long timestamp, long count) {
+        long eventTime = Math.min(timestamp, System.currentTimeMillis() + maxClockSkewMs);
+        maxEventTimes.computeIfAbsent(partition, p -> new AtomicLong(Long.MIN_VALUE))
+                .accumulateAndGet(eventTime, Math::max);
+        if (eventTime < watermark()) {
+            lateEvents.add(count);
+            return;
+        }
+        for (BucketRing ring : rings.values()) {
+            ring.add(lane, eventTime, count);
+        }
+    }
+
+    public void apply(int partition, RouteBatch batch) {
+        for (RouteBatch.Lane lane : batch.lanes()) {
+            for (int i = 0; i < lane.buckets(); i++) {
+                record(partition, lane.key(), lane.bucketStartMs(i), lane.bucketCount(i));
+            }
+        }
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeInt(maxEventTimes.size());
+        maxEventTimes.forEach((partition, newest) -> {
+            out.writeInt(partition);
+            out.writeLong(newest.get());
+        });
+        out.writeLong(lateEvents.sum());
+        out.writeInt(rings.size());
+        rings.forEach((window, ring) -> {
+            out.writeString(window.label());
+            ring.writeTo(out);
+        });
+    }
+
+    public void restore(SnapshotInput in) {
+        maxEventTimes.clear();
+        int partitions = in.readInt();
+        for (int i = 0; i < partitions; i++) {
+            maxEventTimes.put(in.readInt(), new AtomicLong(in.readLong()));
+        }
+        lateEvents.reset();
+        lateEvents.add(in.readLong());
+        int windows = in.readInt();
+        for (int i = 0; i < windows; i++) {
+            String label = in.readString();
+            BucketRing ring = TimeWindow.parse(label).map(rings::get)
+                    .orElseGet(() -> new BucketRing(TimeWindow.MINUTE, 0));   // Unknown window: read and drop
+            ring.restore(in);
+        }
+    }
+
+    // Event time up to which the windows are considered complete: the slowest partition seen so far,
+    // less the allowed lateness
+    public long watermark() {
+        long slowest = maxEventTimes.values().stream()
+                .mapToLong(AtomicLong::get)
+                .filter(newest -> newest != Long.MIN_VALUE)
+                .min()
+                .orElse(Long.MIN_VALUE);
+        return slowest == Long.MIN_VALUE ? 0 : slowest - allowedLatenessMs;
+    }
+
+    public WindowSnapshot top(TimeWindow window, WindowMode mode, int limit, long now) {
+        long[] range = range(window, mode, now);
+        Map<String, Long> totals = rings.get(window).sum(range[0], range[1]);
+        List<LaneCount> lanes = totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new LaneCount(entry.getKey(), entry.getValue()))
+                .toList();
+        long total = totals.values().stream().mapToLong(Long::longValue).sum();
+        return snapshot(window, mode, range, total, lanes);
+    }
+
+    public WindowSnapshot lane(TimeWindow window, WindowMode mode, String lane, long now) {
+        long[] range = range(window, mode, now);
+        long count = rings.get(window).count(lane, range[0], range[1]);
+        return snapshot(window, mode, range, count, List.of(new LaneCount(lane, count)));
+    }
+
+    private WindowSnapshot snapshot(TimeWindow window, WindowMode mode, long[] range, long total,
+                                    List<LaneCount> lanes) {
+        return new WindowSnapshot(window.label(), mode.name().toLowerCase(), range[0], range[1], total, lanes,
+                watermark(), lateEvents.sum());
+    }
+
+    private static long[] range(TimeWindow window, WindowMode mode, long now) {
+        if (mode == WindowMode.TUMBLING) {
+            long end = now - Math.floorMod(now, window.lengthMs());
+            return new long[]{end - window.lengthMs(), end};
+        }
+        long end = now - Math.floorMod(now, window.bucketMs()) + window.bucketMs();
+        return new long[]{end - window.lengthMs(), end};
+    }
+}
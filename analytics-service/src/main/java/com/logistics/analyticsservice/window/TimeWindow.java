@@ -0,0 +1,45 @@
+package com.logistics.analyticsservice.window;
+
+import java.util.Optional;
+
+// Window length and the bucket granularity it is tracked at; sliding queries are accurate to one bucket
+public enum TimeWindow {
+    MINUTE("1m", 60_000L, 1_000L),
+    HOUR("1h", 3_600_000L, 60_000L),
+    DAY("1d", 86_400_000L, 900_000L);
+
+    private final String label;
+    private final long lengthMs;
+    private final long bucketMs;
+
+    TimeWindow(String label, long lengthMs, long bucketMs) {
+        this.label = label;
+        this.lengthMs = lengthMs;
+        this.bucketMs = bucketMs;
+    }
+
+    public static Optional<TimeWindow> parse(String value) {
+        for (TimeWindow window : values()) {
+            if (window.label.equalsIgnoreCase(value) || window.name().equalsIgnoreCase(value)) {
+                return Optional.of(window);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long lengthMs() {
+        return lengthMs;
+    }
+
+    public long bucketMs() {
+        return bucketMs;
+    }
+
+    public int bucketsPerWindow() {
+        return (int) (lengthMs / bucketMs);
+    }
+}
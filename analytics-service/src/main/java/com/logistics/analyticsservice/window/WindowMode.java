@@ -0,0 +1,17 @@
+package com.logistics.analyticsservice.window;
+
+import java.util.Optional;
+
+public enum WindowMode {
+    SLIDING,    // The last window length up to now, at bucket granularity
+    TUMBLING;   // The last complete, clock-aligned window
+
+    public static Optional<WindowMode> parse(String value) {
+        for (WindowMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.logistics.analyticsservice.aggregate;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.matrix.OdMatrix;
+import com.logistics.analyticsservice.sketch.RouteSketches;
+import com.logistics.analyticsservice.sketch.SketchRegistry;
+import com.logistics.analyticsservice.window.RouteWindows;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RouteAggregatesTest {
+
+    private final SketchRegistry sketchRegistry = mock(SketchRegistry.class);
+    private final RouteAggregates aggregates =
+            new RouteAggregates(new RouteWindows(30_000, 5_000, 10_000), sketchRegistry, new OdMatrix());
+
+    // A batch arriving while a checkpoint is being encoded is neither blocked nor part of that checkpoint
+    @Test
+    void encodingNeverBlocksApplyAndCapturesAConsistentCut() throws Exception {
+        ReflectionTestUtils.setField(aggregates, "exactIndexEnabled", true);
+        when(sketchRegistry.forPartition(anyInt())).thenReturn(mock(RouteSketches.class));
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            encoding.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(sketchRegistry).writeTo(any());
+
+        aggregates.apply(0, batch(0));
+        CompletableFuture<SnapshotOutput> checkpoint = CompletableFuture.supplyAsync(aggregates::encode);
+        assertThat(encoding.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> aggregates.apply(0, batch(1)));
+        assertThat(aggregates.nextOffsets()).containsEntry(0, 2L);
+        assertThat(aggregates.cityCounts()).containsEntry("Hamburg", 1L);
+
+        release.countDown();
+        SnapshotInput snapshot = new SnapshotInput(checkpoint.get(10, TimeUnit.SECONDS).toBuffer());
+        assertThat(snapshot.readInt()).isEqualTo(1);
+        assertThat(snapshot.readInt()).isZero();
+        assertThat(snapshot.readLong()).isEqualTo(1L);
+        assertThat(snapshot.readInt()).isEqualTo(1);
+        assertThat(snapshot.readString()).isEqualTo("Hamburg");
+        assertThat(snapshot.readLong()).isEqualTo(1L);
+
+        assertThat(aggregates.cityCounts()).isEqualTo(Map.of("Hamburg", 2L));
+    }
+
+    private static RouteBatch batch(long offset) {
+        RouteBatch batch = new RouteBatch();
+        batch.add("Rotterdam", "Hamburg", 1_760_000_000_000L + offset, 10.0);
+        batch.markOffset(offset);
+        return batch;
+    }
+}
@@ -0,0 +1,169 @@
+package com.logistics.analyticsservice.matrix;
+
+import com.logistics.analyticsservice.aggregate.RouteBatch;
+import com.logistics.analyticsservice.model.MatrixSlice;
+import com.logistics.analyticsservice.window.RouteWindows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Events/sec and bytes allocated per event for the interned matrix against String-keyed boxed maps, fed the same
+// Zipf-skewed lanes on one thread. Run with ./gradlew benchmark
+@Tag("benchmark")
+class OdMatrixBenchmark {
+
+    private static final int CITIES = 1_000;
+    private static final int EVENTS = 2_000_000;
+    private static final int POLL_SIZE = 500;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String[] origins = new String[EVENTS];
+    private final String[] destinations = new String[EVENTS];
+    private final long[] timestamps = new long[EVENTS];
+    private final Double[] weights = new Double[EVENTS];
+
+    @Test
+    void internedMatrixVersusStringKeyedMaps() {
+        generate();
+
+        Map<String, LaneTotals> baseline = new HashMap<>();
+        Result stringKeyed = measure("string-keyed maps", () -> applyStringKeyed(baseline));
+
+        OdMatrix endToEnd = new OdMatrix();
+        Result batchAndMatrix = measure("RouteBatch + OdMatrix", () -> applyBatched(endToEnd));
+
+        List<RouteBatch> batches = batches();
+        OdMatrix matrixOnly = new OdMatrix();
+        Result applyOnly = measure("OdMatrix.apply only", () -> batches.forEach(matrixOnly::apply));
+
+        System.out.printf("OD matrix: %,d cities, %,d events per round, %d-event polls, median of %d rounds%n",
+                CITIES, EVENTS, POLL_SIZE, ROUNDS);
+        for (Result result : List.of(stringKeyed, batchAndMatrix, applyOnly)) {
+            System.out.printf("  %-22s %,12.0f events/sec %8.1f bytes/event%n",
+                    result.name, result.eventsPerSecond, result.bytesPerEvent);
+        }
+
+        long rounds = WARMUP_ROUNDS + ROUNDS;
+        assertThat(total(endToEnd)).isEqualTo(rounds * EVENTS);
+        assertThat(total(matrixOnly)).isEqualTo(rounds * EVENTS);
+        assertThat(baseline.values().stream().mapToLong(totals -> totals.count).sum()).isEqualTo(rounds * EVENTS);
+    }
+
+    private void generate() {
+        Random random = new Random(42);
+        double[] cumulative = zipf(CITIES, 1.0);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < EVENTS; i++) {
+            origins[i] = "city-" + sample(cumulative, random);
+            destinations[i] = "city-" + sample(cumulative, random);
+            timestamps[i] = start + i / 10;
+            weights[i] = Math.exp(3 + 1.5 * random.nextGaussian());
+        }
+    }
+
+    // What keying by raw names costs: a concatenated lane key and boxed totals per event
+    private void applyStringKeyed(Map<String, LaneTotals> totals) {
+        for (int i = 0; i < EVENTS; i++) {
+            totals.computeIfAbsent(RouteWindows.laneKey(origins[i], destinations[i]), key -> new LaneTotals())
+                    .add(weights[i], timestamps[i]);
+        }
+    }
+
+    // The consumer path: one RouteBatch per poll, applied once
+    private void applyBatched(OdMatrix matrix) {
+        for (int from = 0; from < EVENTS; from += POLL_SIZE) {
+            RouteBatch batch = new RouteBatch();
+            for (int i = from; i < Math.min(from + POLL_SIZE, EVENTS); i++) {
+                batch.add(origins[i], destinations[i], timestamps[i], weights[i]);
+            }
+            matrix.apply(batch);
+        }
+    }
+
+    private List<RouteBatch> batches() {
+        List<RouteBatch> batches = new ArrayList<>();
+        for (int from = 0; from < EVENTS; from += POLL_SIZE) {
+            RouteBatch batch = new RouteBatch();
+            for (int i = from; i < Math.min(from + POLL_SIZE, EVENTS); i++) {
+                batch.add(origins[i], destinations[i], timestamps[i], weights[i]);
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static Result measure(String name, Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long thread = Thread.currentThread().getId();
+        double[] rates = new double[ROUNDS];
+        double[] allocations = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            round.run();
+            long nanos = System.nanoTime() - start;
+            allocations[i] = (THREADS.getThreadAllocatedBytes(thread) - allocatedBefore) / (double) EVENTS;
+            rates[i] = EVENTS * 1e9 / nanos;
+        }
+        return new Result(name, median(rates), median(allocations));
+    }
+
+    private static long total(OdMatrix matrix) {
+        MatrixSlice slice = matrix.slice(null, null, CITIES);
+        return Arrays.stream(slice.getCounts()).flatMapToLong(Arrays::stream).sum();
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static double[] zipf(int n, double s) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, s);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private record Result(String name, double eventsPerSecond, double bytesPerEvent) {
+    }
+
+    private static final class LaneTotals {
+        private long count;
+        private Double weightKg = 0.0;
+        private Long lastSeen = 0L;
+
+        private void add(Double weight, long timestamp) {
+            count++;
+            weightKg = weightKg + weight;
+            lastSeen = Math.max(lastSeen, timestamp);
+        }
+    }
+}
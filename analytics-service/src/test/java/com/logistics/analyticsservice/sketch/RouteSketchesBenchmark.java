@@ -0,0 +1,253 @@
+package com.logistics.analyticsservice.sketch;
+
+import com.logistics.analyticsservice.aggregate.RouteBatch;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import com.logistics.analyticsservice.model.CardinalityEstimate;
+import com.logistics.analyticsservice.model.HeavyHitter;
+import com.logistics.analyticsservice.window.RouteWindows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Accuracy and retained heap of the route sketches against exact maps answering the same questions, over a skewed
+// stream of 2M events spread across 4 partitions and merged afterwards. Run with ./gradlew benchmark
+@Tag("benchmark")
+class RouteSketchesBenchmark {
+
+    private static final int EVENTS = 2_000_000;
+    private static final int PARTITIONS = 4;
+    private static final int POLL_SIZE = 500;
+    private static final int DESTINATIONS = 200_000;
+    private static final int ORIGINS = 5_000;
+    private static final int TOP = 100;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    // Application defaults from SketchSettings
+    private static final int TOP_K = 1000;
+    private static final int HLL_PRECISION = 14;
+    private static final int ORIGIN_HLL_PRECISION = 8;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void sketchesVersusExactMaps() {
+        int[] origins = new int[EVENTS];
+        int[] destinations = new int[EVENTS];
+        double[] weights = new double[EVENTS];
+        Random random = new Random(42);
+        ZipfSampler destinationSampler = new ZipfSampler(DESTINATIONS, 1.1, random);
+        ZipfSampler originSampler = new ZipfSampler(ORIGINS, 0.8, random);
+        for (int i = 0; i < EVENTS; i++) {
+            origins[i] = originSampler.next();
+            destinations[i] = destinationSampler.next();
+            weights[i] = Math.exp(3 + 1.5 * random.nextGaussian());
+        }
+
+        long baseline = usedHeapAfterGc();
+        long start = System.nanoTime();
+        RouteSketches merged = buildSketches(origins, destinations, weights);
+        long sketchNanos = System.nanoTime() - start;
+        long sketchHeap = usedHeapAfterGc() - baseline;
+
+        baseline = usedHeapAfterGc();
+        start = System.nanoTime();
+        Exact exact = buildExact(origins, destinations, weights);
+        long exactNanos = System.nanoTime() - start;
+        long exactHeap = usedHeapAfterGc() - baseline;
+
+        SnapshotOutput checkpoint = new SnapshotOutput(1 << 20);
+        merged.writeTo(checkpoint);
+
+        System.out.printf("route sketches: %,d events, %,d partitions merged, top-k %d, HLL p%d (p%d per destination)%n",
+                EVENTS, PARTITIONS, TOP_K, HLL_PRECISION, ORIGIN_HLL_PRECISION);
+        System.out.printf("  retained heap: sketches %,d KiB (checkpoint %,d KiB), exact maps %,d KiB (destination counts alone %,d KiB)%n",
+                sketchHeap / 1024, checkpoint.toBuffer().remaining() / 1024, exactHeap / 1024, exact.destinationMapHeap / 1024);
+        System.out.printf("  build time: sketches %d ms, exact maps %d ms%n", sketchNanos / 1_000_000, exactNanos / 1_000_000);
+
+        double destinationRecall = recall(merged.topDestinations(TOP), exact.destinationCounts);
+        double laneRecall = recall(merged.topLanes(TOP), exact.laneCounts);
+        System.out.printf("  top-%d destinations: recall %.3f, max count error on true top %.4f%%%n", TOP, destinationRecall,
+                100 * maxCountError(merged.topDestinations(TOP), exact.destinationCounts));
+        System.out.printf("  top-%d lanes: recall %.3f, max count error on true top %.4f%%%n", TOP, laneRecall,
+                100 * maxCountError(merged.topLanes(TOP), exact.laneCounts));
+        assertWithinBounds(merged.topDestinations(TOP), exact.destinationCounts);
+        assertWithinBounds(merged.topLanes(TOP), exact.laneCounts);
+
+        CardinalityEstimate cardinality = merged.cardinality(null);
+        System.out.printf("  distinct origins %,d vs %,d (%.3f%%), destinations %,d vs %,d (%.3f%%), lanes %,d vs %,d (%.3f%%)%n",
+                cardinality.getDistinctOrigins(), exact.origins.size(),
+                100 * relativeError(cardinality.getDistinctOrigins(), exact.origins.size()),
+                cardinality.getDistinctDestinations(), exact.destinations.size(),
+                100 * relativeError(cardinality.getDistinctDestinations(), exact.destinations.size()),
+                cardinality.getDistinctLanes(), exact.laneCounts.size(),
+                100 * relativeError(cardinality.getDistinctLanes(), exact.laneCounts.size()));
+
+        double worstOriginsError = 0;
+        for (HeavyHitter hitter : merged.topDestinations(10)) {
+            Long estimate = merged.cardinality(hitter.getKey()).getOriginsForDestination();
+            assertThat(estimate).as("origins tracked for top destination %s", hitter.getKey()).isNotNull();
+            worstOriginsError = Math.max(worstOriginsError,
+                    relativeError(estimate, exact.originsByDestination.get(hitter.getKey()).size()));
+        }
+        System.out.printf("  origins per top-10 destination: worst error %.3f%%%n", 100 * worstOriginsError);
+
+        Arrays.sort(exact.weights);
+        Map<String, Double> estimated = merged.weightQuantiles(QUANTILES).getQuantilesKg();
+        StringBuilder quantiles = new StringBuilder();
+        double worstQuantileError = 0;
+        int q = 0;
+        for (Map.Entry<String, Double> entry : estimated.entrySet()) {
+            double actual = exact.weights[(int) Math.min(exact.weights.length - 1, Math.ceil(QUANTILES[q++] * exact.weights.length) - 1)];
+            double error = Math.abs(entry.getValue() - actual) / actual;
+            worstQuantileError = Math.max(worstQuantileError, error);
+            quantiles.append(String.format(" %s %.1f vs %.1f kg (%.3f%%)", entry.getKey(), entry.getValue(), actual, 100 * error));
+        }
+        System.out.println("  weight quantiles:" + quantiles);
+
+        assertThat(destinationRecall).isGreaterThanOrEqualTo(0.95);
+        assertThat(relativeError(cardinality.getDistinctDestinations(), exact.destinations.size())).isLessThan(0.05);
+        assertThat(worstQuantileError).isLessThan(0.02);
+        Reference.reachabilityFence(merged);
+        Reference.reachabilityFence(exact);
+    }
+
+    // One sketch set per partition fed poll by poll through RouteBatch, as the consumer does, then merged
+    private static RouteSketches buildSketches(int[] origins, int[] destinations, double[] weights) {
+        List<RouteSketches> partitions = new ArrayList<>();
+        for (int p = 0; p < PARTITIONS; p++) {
+            partitions.add(newSketches());
+        }
+        long now = System.currentTimeMillis();
+        for (int from = 0; from < EVENTS; from += POLL_SIZE) {
+            RouteBatch batch = new RouteBatch();
+            for (int i = from; i < Math.min(from + POLL_SIZE, EVENTS); i++) {
+                batch.add(city("origin", origins[i]), city("city", destinations[i]), now + i, weights[i]);
+            }
+            partitions.get((from / POLL_SIZE) % PARTITIONS).apply(batch);
+        }
+        RouteSketches merged = newSketches();
+        partitions.forEach(partition -> partition.mergeInto(merged));
+        return merged;
+    }
+
+    private Exact buildExact(int[] origins, int[] destinations, double[] weights) {
+        Exact exact = new Exact();
+        long baseline = usedHeapAfterGc();
+        for (int i = 0; i < EVENTS; i++) {
+            exact.destinationCounts.merge(city("city", destinations[i]), 1L, Long::sum);
+        }
+        exact.destinationMapHeap = usedHeapAfterGc() - baseline;
+        for (int i = 0; i < EVENTS; i++) {
+            String origin = city("origin", origins[i]);
+            String destination = city("city", destinations[i]);
+            exact.laneCounts.merge(RouteWindows.laneKey(origin, destination), 1L, Long::sum);
+            exact.originsByDestination.computeIfAbsent(destination, d -> new HashSet<>()).add(origin);
+            exact.origins.add(origin);
+            exact.destinations.add(destination);
+        }
+        exact.weights = weights.clone();
+        return exact;
+    }
+
+    private static RouteSketches newSketches() {
+        return new RouteSketches(TOP_K, HLL_PRECISION, ORIGIN_HLL_PRECISION, new QuantileSketch(0.01, 0.01, 1_000_000));
+    }
+
+    // A fresh String per event, the way deserialized records arrive
+    private static String city(String prefix, int id) {
+        return prefix + "-" + id;
+    }
+
+    private static double recall(List<HeavyHitter> reported, Map<String, Long> exact) {
+        Set<String> trueTop = trueTop(exact);
+        return reported.stream().filter(hitter -> trueTop.contains(hitter.getKey())).count() / (double) TOP;
+    }
+
+    private static Set<String> trueTop(Map<String, Long> exact) {
+        return exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    // Only keys that really are in the top: a flat tail legitimately surfaces keys whose count is mostly error
+    private static double maxCountError(List<HeavyHitter> reported, Map<String, Long> exact) {
+        Set<String> trueTop = trueTop(exact);
+        double worst = 0;
+        for (HeavyHitter hitter : reported) {
+            if (trueTop.contains(hitter.getKey())) {
+                worst = Math.max(worst, relativeError(hitter.getCount(), exact.get(hitter.getKey())));
+            }
+        }
+        return worst;
+    }
+
+    // Space-Saving guarantee: the true count lies within [count - error, count]
+    private static void assertWithinBounds(List<HeavyHitter> reported, Map<String, Long> exact) {
+        for (HeavyHitter hitter : reported) {
+            long actual = exact.getOrDefault(hitter.getKey(), 0L);
+            assertThat(actual).as("true count of %s", hitter.getKey())
+                    .isBetween(hitter.getCount() - hitter.getError(), hitter.getCount());
+        }
+    }
+
+    private static double relativeError(long estimate, long actual) {
+        return actual == 0 ? (estimate == 0 ? 0 : 1) : Math.abs(estimate - actual) / (double) actual;
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class Exact {
+        private final Map<String, Long> destinationCounts = new HashMap<>();
+        private final Map<String, Long> laneCounts = new HashMap<>();
+        private final Map<String, Set<String>> originsByDestination = new HashMap<>();
+        private final Set<String> origins = new HashSet<>();
+        private final Set<String> destinations = new HashSet<>();
+        private double[] weights;
+        private long destinationMapHeap;
+    }
+
+    // Inverse-CDF sampling over ranks 0..n-1 with P(rank k) proportional to 1 / (k + 1)^s
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        private final Random random;
+
+        private ZipfSampler(int n, double s, Random random) {
+            this.cumulative = new double[n];
+            this.random = random;
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, s);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        private int next() {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.logistics.analyticsservice.window;
+
+import com.logistics.analyticsservice.checkpoint.SnapshotInput;
+import com.logistics.analyticsservice.checkpoint.SnapshotOutput;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteWindowsTest {
+
+    private static final long LATENESS_MS = 30_000;
+    private static final long SKEW_MS = 5_000;
+
+    private final RouteWindows windows = new RouteWindows(LATENESS_MS, SKEW_MS, 10_000);
+
+    @Test
+    void partitionRunningAheadDoesNotMakeOtherPartitionsLate() {
+        long now = System.currentTimeMillis();
+        windows.record(0, "Rotterdam->Hamburg", now - 120_000, 1);
+        windows.record(1, "Rotterdam->Hamburg", now, 1);
+        windows.record(0, "Rotterdam->Hamburg", now - 110_000, 1);
+
+        assertThat(windows.watermark()).isEqualTo(now - 110_000 - LATENESS_MS);
+        assertThat(windows.lane(TimeWindow.HOUR, WindowMode.SLIDING, "Rotterdam->Hamburg", now).getTotal())
+                .isEqualTo(3);
+        assertThat(windows.top(TimeWindow.HOUR, WindowMode.SLIDING, 10, now).getLateEvents()).isZero();
+    }
+
+    @Test
+    void eventTimeAheadOfTheWallClockIsClamped() {
+        long now = System.currentTimeMillis();
+        windows.record(0, "Rotterdam->Hamburg", now + 86_400_000, 1);
+        windows.record(0, "Rotterdam->Hamburg", now - 10_000, 1);
+
+        assertThat(windows.watermark()).isLessThanOrEqualTo(System.currentTimeMillis() + SKEW_MS - LATENESS_MS);
+        assertThat(windows.top(TimeWindow.HOUR, WindowMode.SLIDING, 10, now).getLateEvents()).isZero();
+    }
+
+    @Test
+    void checkpointRestoresEveryPartitionsEventTime() {
+        long now = System.currentTimeMillis();
+        windows.record(0, "Rotterdam->Hamburg", now - 60_000, 1);
+        windows.record(3, "Rotterdam->Hamburg", now, 1);
+        SnapshotOutput out = new SnapshotOutput(1024);
+        windows.writeTo(out);
+
+        RouteWindows restored = new RouteWindows(LATENESS_MS, SKEW_MS, 10_000);
+        restored.restore(new SnapshotInput(out.toBuffer()));
+        restored.record(3, "Rotterdam->Hamburg", now, 1);
+
+        assertThat(restored.watermark()).isEqualTo(now - 60_000 - LATENESS_MS);
+    }
+}
@@ -0,0 +1,16 @@
+package com.logistics.contract;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Published by shipping-service on the logistics_routes topic, consumed by analytics-service
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteEvent {
+    private String origin;
+    private String destination;
+    private long timestamp;
+    private Double weight;      // Shipment weight in kg, null for events from older producers
+}
@@ -1,9 +1,11 @@
-package com.logistics.functionservice.dto;
+package com.logistics.contract;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// Published by shipping-service on shipment_exchange, consumed by fleet-service and function-service.
+// Wire field numbers live in EventCodec; add new fields at the end and never reuse a number.
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,4 +19,5 @@ public class ShipmentEvent {
     private String origin;
     private String destination;
     private String licensePlate;
-}
\ No newline at end of file
+    private long dispatchedAt;      // Epoch millis when the shipment was dispatched, 0 if unknown
+}
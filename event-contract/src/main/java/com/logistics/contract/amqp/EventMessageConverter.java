@@ -0,0 +1,56 @@
+package com.logistics.contract.amqp;
+
+import com.logistics.contract.wire.EventCodec;
+import com.logistics.contract.wire.WireFormat;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+// Writes the shared events in the binary wire format (or JSON, if configured) and reads either, picking by
+// content type or magic byte. Anything that isn't a shared event goes through the JSON converter unchanged.
+public class EventMessageConverter implements MessageConverter {
+
+    private final MessageConverter json;
+    private final WireFormat outbound;
+
+    public EventMessageConverter(WireFormat outbound) {
+        this(new Jackson2JsonMessageConverter(), outbound);
+    }
+
+    public EventMessageConverter(MessageConverter json, WireFormat outbound) {
+        this.json = json;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (outbound == WireFormat.BINARY && object != null && EventCodec.supports(object.getClass())) {
+            byte[] body = EventCodec.encode(object);
+            messageProperties.setContentType(EventCodec.CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+        return json.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        byte[] body = message.getBody();
+        if (EventCodec.CONTENT_TYPE.equals(message.getMessageProperties().getContentType()) || EventCodec.isEncoded(body)) {
+            try {
+                return EventCodec.decode(body);
+            } catch (IllegalArgumentException e) {
+                // Rejected without requeue by the default error handler, same as unreadable JSON
+                throw new MessageConversionException("Unreadable binary event", e);
+            }
+        }
+        try {
+            return json.fromMessage(message);
+        } catch (IllegalArgumentException e) {
+            // Jackson's type mapper refuses a __TypeId__ outside the trusted packages this way
+            throw new MessageConversionException("Unreadable JSON event", e);
+        }
+    }
+}
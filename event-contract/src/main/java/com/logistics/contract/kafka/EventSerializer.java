@@ -0,0 +1,44 @@
+package com.logistics.contract.kafka;
+
+import com.logistics.contract.wire.EventCodec;
+import com.logistics.contract.wire.WireFormat;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+// Value serializer for the shared events. Set logistics.events.wire-format=json in the producer properties to
+// fall back to Spring's JsonSerializer, which also handles any payload the codec doesn't know.
+public class EventSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private WireFormat format = WireFormat.BINARY;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        format = WireFormat.parse(configs.get(WireFormat.PROPERTY));
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (format == WireFormat.BINARY && EventCodec.supports(data.getClass())) {
+            return EventCodec.encode(data);
+        }
+        return headers == null ? json.serialize(topic, data) : json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
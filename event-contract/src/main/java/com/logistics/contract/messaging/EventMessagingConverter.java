@@ -0,0 +1,39 @@
+package com.logistics.contract.messaging;
+
+import com.logistics.contract.wire.EventCodec;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+// spring-messaging flavour of the codec for Spring Cloud Stream bindings. It only claims messages whose
+// contentType is the binary event type; JSON messages still go to the framework's default converter.
+public class EventMessagingConverter extends AbstractMessageConverter {
+
+    public EventMessagingConverter() {
+        super(MimeType.valueOf(EventCodec.CONTENT_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EventCodec.supports(clazz);
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        try {
+            return EventCodec.decode(payload, targetClass);
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException(message, "Unreadable binary event", e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return EventCodec.encode(payload);
+    }
+}
@@ -0,0 +1,34 @@
+package com.logistics.contract.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Time from dispatch in shipping-service until a consuming stage received the event. Micrometer keeps the
+// distribution in rotating HdrHistograms, so the published p50/p99/p99.9 and max cover only the last couple
+// of minutes and a spike shows up instead of being averaged into the service's whole lifetime.
+// Each consuming service registers one instance as a bean, tagged with its own stage.
+public class DispatchLagMetrics {
+
+    private final Timer lag;
+
+    public DispatchLagMetrics(MeterRegistry meterRegistry, String stage) {
+        this.lag = Timer.builder("logistics.dispatch.lag")
+                .description("Dispatch-to-consumer latency per pipeline stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .distributionStatisticExpiry(Duration.ofMinutes(2))
+                .distributionStatisticBufferLength(4)
+                .register(meterRegistry);
+    }
+
+    // Events from producers that predate the dispatch stamp carry 0 and are skipped; clock skew is clamped
+    public void record(long dispatchedAtMs) {
+        if (dispatchedAtMs <= 0) {
+            return;
+        }
+        lag.record(Math.max(0, System.currentTimeMillis() - dispatchedAtMs), TimeUnit.MILLISECONDS);
+    }
+}
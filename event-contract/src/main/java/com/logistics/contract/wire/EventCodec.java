@@ -0,0 +1,164 @@
+package com.logistics.contract.wire;
+
+import com.logistics.contract.RouteEvent;
+import com.logistics.contract.ShipmentEvent;
+
+/**
+ * Compact binary encoding for the shared events.
+ *
+ * <p>A message is a three byte header (magic, format version, event type) followed by tagged fields. Null
+ * fields, and zero timestamps, are simply left out. Fields can be added freely as long as numbers are never
+ * reused: readers skip numbers they don't know and leave missing fields at their defaults. FORMAT_VERSION only
+ * changes for a layout change readers cannot skip over, and readers reject versions newer than their own.
+ */
+public final class EventCodec {
+
+    public static final String CONTENT_TYPE = "application/x-logistics-event";
+
+    // Never a valid first byte of a JSON document, so JSON and binary payloads can share a queue or topic
+    public static final byte MAGIC = (byte) 0xC5;
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final byte TYPE_SHIPMENT = 1;
+    private static final byte TYPE_ROUTE = 2;
+
+    // ShipmentEvent field keys (field number << 3 | wire type)
+    private static final int SHIPMENT_TRACKING_ID = 1 << 3 | WireWriter.WIRE_BYTES;
+    private static final int SHIPMENT_STATUS = 2 << 3 | WireWriter.WIRE_BYTES;
+    private static final int SHIPMENT_MESSAGE = 3 << 3 | WireWriter.WIRE_BYTES;
+    private static final int SHIPMENT_VEHICLE_ID = 4 << 3 | WireWriter.WIRE_VARINT;
+    private static final int SHIPMENT_WEIGHT = 5 << 3 | WireWriter.WIRE_FIXED64;
+    private static final int SHIPMENT_ORIGIN = 6 << 3 | WireWriter.WIRE_BYTES;
+    private static final int SHIPMENT_DESTINATION = 7 << 3 | WireWriter.WIRE_BYTES;
+    private static final int SHIPMENT_LICENSE_PLATE = 8 << 3 | WireWriter.WIRE_BYTES;
+    private static final int SHIPMENT_DISPATCHED_AT = 9 << 3 | WireWriter.WIRE_VARINT;
+
+    // RouteEvent field keys
+    private static final int ROUTE_ORIGIN = 1 << 3 | WireWriter.WIRE_BYTES;
+    private static final int ROUTE_DESTINATION = 2 << 3 | WireWriter.WIRE_BYTES;
+    private static final int ROUTE_TIMESTAMP = 3 << 3 | WireWriter.WIRE_VARINT;
+    private static final int ROUTE_WEIGHT = 4 << 3 | WireWriter.WIRE_FIXED64;
+
+    private EventCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type == ShipmentEvent.class || type == RouteEvent.class;
+    }
+
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length >= HEADER_LENGTH && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        WireWriter writer = WireWriter.acquire();
+        writer.writeByte(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        if (event instanceof ShipmentEvent shipment) {
+            writer.writeByte(TYPE_SHIPMENT);
+            writeShipment(writer, shipment);
+        } else if (event instanceof RouteEvent route) {
+            writer.writeByte(TYPE_ROUTE);
+            writeRoute(writer, route);
+        } else {
+            throw new IllegalArgumentException("No wire encoding for " + (event == null ? "null" : event.getClass().getName()));
+        }
+        return writer.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isEncoded(data)) {
+            throw new IllegalArgumentException("Not a binary event payload");
+        }
+        WireReader reader = new WireReader(data, 0, data.length);
+        reader.readByte();
+        byte version = reader.readByte();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported event format version " + version);
+        }
+        byte type = reader.readByte();
+        return switch (type) {
+            case TYPE_SHIPMENT -> readShipment(reader);
+            case TYPE_ROUTE -> readRoute(reader);
+            default -> throw new IllegalArgumentException("Unknown event type " + type);
+        };
+    }
+
+    public static <T> T decode(byte[] data, Class<T> type) {
+        Object event = decode(data);
+        if (!type.isInstance(event)) {
+            throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but payload holds "
+                    + event.getClass().getSimpleName());
+        }
+        return type.cast(event);
+    }
+
+    private static void writeShipment(WireWriter writer, ShipmentEvent event) {
+        writer.writeString(field(SHIPMENT_TRACKING_ID), event.getTrackingId());
+        writer.writeString(field(SHIPMENT_STATUS), event.getStatus());
+        writer.writeString(field(SHIPMENT_MESSAGE), event.getMessage());
+        if (event.getVehicleId() != null) {
+            writer.writeSignedLong(field(SHIPMENT_VEHICLE_ID), event.getVehicleId());
+        }
+        if (event.getWeight() != null) {
+            writer.writeDouble(field(SHIPMENT_WEIGHT), event.getWeight());
+        }
+        writer.writeString(field(SHIPMENT_ORIGIN), event.getOrigin());
+        writer.writeString(field(SHIPMENT_DESTINATION), event.getDestination());
+        writer.writeString(field(SHIPMENT_LICENSE_PLATE), event.getLicensePlate());
+        if (event.getDispatchedAt() != 0) {
+            writer.writeSignedLong(field(SHIPMENT_DISPATCHED_AT), event.getDispatchedAt());
+        }
+    }
+
+    private static ShipmentEvent readShipment(WireReader reader) {
+        ShipmentEvent event = new ShipmentEvent();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            switch (tag) {
+                case SHIPMENT_TRACKING_ID -> event.setTrackingId(reader.readString());
+                case SHIPMENT_STATUS -> event.setStatus(reader.readString());
+                case SHIPMENT_MESSAGE -> event.setMessage(reader.readString());
+                case SHIPMENT_VEHICLE_ID -> event.setVehicleId(reader.readSignedLong());
+                case SHIPMENT_WEIGHT -> event.setWeight(reader.readDouble());
+                case SHIPMENT_ORIGIN -> event.setOrigin(reader.readString());
+                case SHIPMENT_DESTINATION -> event.setDestination(reader.readString());
+                case SHIPMENT_LICENSE_PLATE -> event.setLicensePlate(reader.readString());
+                case SHIPMENT_DISPATCHED_AT -> event.setDispatchedAt(reader.readSignedLong());
+                default -> reader.skip(tag);
+            }
+        }
+        return event;
+    }
+
+    private static void writeRoute(WireWriter writer, RouteEvent event) {
+        writer.writeString(field(ROUTE_ORIGIN), event.getOrigin());
+        writer.writeString(field(ROUTE_DESTINATION), event.getDestination());
+        if (event.getTimestamp() != 0) {
+            writer.writeSignedLong(field(ROUTE_TIMESTAMP), event.getTimestamp());
+        }
+        if (event.getWeight() != null) {
+            writer.writeDouble(field(ROUTE_WEIGHT), event.getWeight());
+        }
+    }
+
+    private static RouteEvent readRoute(WireReader reader) {
+        RouteEvent event = new RouteEvent();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            switch (tag) {
+                case ROUTE_ORIGIN -> event.setOrigin(reader.readString());
+                case ROUTE_DESTINATION -> event.setDestination(reader.readString());
+                case ROUTE_TIMESTAMP -> event.setTimestamp(reader.readSignedLong());
+                case ROUTE_WEIGHT -> event.setWeight(reader.readDouble());
+                default -> reader.skip(tag);
+            }
+        }
+        return event;
+    }
+
+    private static int field(int key) {
+        return key >>> 3;
+    }
+}
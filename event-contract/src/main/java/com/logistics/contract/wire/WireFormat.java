@@ -0,0 +1,18 @@
+package com.logistics.contract.wire;
+
+import java.util.Locale;
+
+// What a producer writes. Consumers accept both regardless, so switch consumers over before producers.
+public enum WireFormat {
+    BINARY,
+    JSON;
+
+    public static final String PROPERTY = "logistics.events.wire-format";
+
+    public static WireFormat parse(Object value) {
+        if (value == null || value.toString().isBlank()) {
+            return BINARY;
+        }
+        return valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+    }
+}
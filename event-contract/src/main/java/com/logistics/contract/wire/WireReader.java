@@ -0,0 +1,97 @@
+package com.logistics.contract.wire;
+
+import java.nio.charset.StandardCharsets;
+
+// Reads fields written by WireWriter straight out of the received byte[] without copying it
+final class WireReader {
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+
+    WireReader(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    boolean hasRemaining() {
+        return pos < limit;
+    }
+
+    byte readByte() {
+        require(1);
+        return buf[pos++];
+    }
+
+    int readTag() {
+        long tag = readVarint();
+        if (tag < 0 || tag > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Malformed event: bad field tag at offset " + pos);
+        }
+        return (int) tag;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return value;
+    }
+
+    long readSignedLong() {
+        long raw = readVarint();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    double readDouble() {
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= (buf[pos++] & 0xFFL) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    // Unknown fields come from newer producers; step over them so old consumers keep working
+    void skip(int tag) {
+        switch (tag & 0x7) {
+            case WireWriter.WIRE_VARINT -> readVarint();
+            case WireWriter.WIRE_FIXED64 -> {
+                require(8);
+                pos += 8;
+            }
+            case WireWriter.WIRE_BYTES -> {
+                int length = readLength();
+                pos += length;
+            }
+            default -> throw new IllegalArgumentException("Malformed event: unknown wire type " + (tag & 0x7));
+        }
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed event: varint longer than 10 bytes");
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - pos) {
+            throw new IllegalArgumentException("Malformed event: field length " + length + " exceeds message");
+        }
+        return (int) length;
+    }
+
+    private void require(int bytes) {
+        if (limit - pos < bytes) {
+            throw new IllegalArgumentException("Malformed event: truncated at offset " + pos);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.logistics.contract.wire;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Appends tagged fields to a per-thread scratch buffer. Each field is a varint key (field number << 3 | wire
+// type) followed by its value, so a reader can skip any field it doesn't know. Not reentrant: acquire(),
+// write, toByteArray() before the next acquire() on the same thread.
+final class WireWriter {
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FIXED64 = 1;
+    static final int WIRE_BYTES = 2;
+
+    private static final int INITIAL_CAPACITY = 256;
+    // A thread that once encoded a huge message shouldn't pin that buffer forever
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<WireWriter> POOL = ThreadLocal.withInitial(WireWriter::new);
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int pos;
+
+    private WireWriter() {
+    }
+
+    static WireWriter acquire() {
+        WireWriter writer = POOL.get();
+        writer.pos = 0;
+        return writer;
+    }
+
+    // The only allocation per message: an exact-size copy the broker client can own
+    byte[] toByteArray() {
+        byte[] out = Arrays.copyOf(buf, pos);
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        return out;
+    }
+
+    void writeByte(byte value) {
+        ensureCapacity(1);
+        buf[pos++] = value;
+    }
+
+    void writeString(int field, String value) {
+        if (value == null) {
+            return;
+        }
+        writeTag(field, WIRE_BYTES);
+        int length = value.length();
+        ensureCapacity(5 + length);
+        // Optimistically copy ASCII straight into place behind the length prefix; anything else goes through
+        // the JDK encoder and is written as plain bytes
+        int start = pos + varintSize(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buf[start + i] = (byte) c;
+        }
+        writeVarint(length);
+        pos += length;
+    }
+
+    void writeSignedLong(int field, long value) {
+        writeTag(field, WIRE_VARINT);
+        writeVarint((value << 1) ^ (value >> 63));      // zigzag: small negatives stay short
+    }
+
+    void writeDouble(int field, double value) {
+        writeTag(field, WIRE_FIXED64);
+        ensureCapacity(8);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            buf[pos++] = (byte) (bits >>> (8 * i));
+        }
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeVarint((long) field << 3 | wireType);
+    }
+
+    private void writeBytes(byte[] bytes) {
+        writeVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (pos + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
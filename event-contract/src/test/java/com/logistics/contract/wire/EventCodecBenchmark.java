@@ -0,0 +1,140 @@
+package com.logistics.contract.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.contract.RouteEvent;
+import com.logistics.contract.ShipmentEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bytes per message and encode/decode cost of the binary codec against plain Jackson, which is what
+// JsonSerializer and Jackson2JsonMessageConverter do underneath. Run with ./gradlew benchmark
+@Tag("benchmark")
+class EventCodecBenchmark {
+
+    private static final int DISTINCT_EVENTS = 1_024;
+    private static final int OPERATIONS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final List<String> CITIES = List.of("Rotterdam", "Hamburg", "Antwerp", "Duisburg", "Lyon",
+            "Milano", "Barcelona", "Warszawa", "Praha", "Wien", "Budapest", "Kraków");
+    private static final List<String> STATUSES = List.of("CREATED", "DISPATCHED", "IN_TRANSIT", "DELIVERED");
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Folded into the results so the JIT cannot drop the work being timed
+    private long sink;
+
+    @Test
+    void binaryCodecVersusJackson() throws IOException {
+        Random random = new Random(42);
+        Object[] shipments = new Object[DISTINCT_EVENTS];
+        Object[] routes = new Object[DISTINCT_EVENTS];
+        for (int i = 0; i < DISTINCT_EVENTS; i++) {
+            shipments[i] = shipment(random);
+            routes[i] = route(random);
+        }
+
+        System.out.printf("event codec: %,d operations per round over %,d distinct events, median of %d rounds%n",
+                OPERATIONS, DISTINCT_EVENTS, ROUNDS);
+        compare("ShipmentEvent", shipments, ShipmentEvent.class);
+        compare("RouteEvent", routes, RouteEvent.class);
+    }
+
+    private void compare(String name, Object[] events, Class<?> type) throws IOException {
+        byte[][] binary = new byte[events.length][];
+        byte[][] json = new byte[events.length][];
+        long binaryBytes = 0;
+        long jsonBytes = 0;
+        for (int i = 0; i < events.length; i++) {
+            binary[i] = EventCodec.encode(events[i]);
+            json[i] = objectMapper.writeValueAsBytes(events[i]);
+            binaryBytes += binary[i].length;
+            jsonBytes += json[i].length;
+            assertThat(EventCodec.decode(binary[i], type)).isEqualTo(events[i]);
+            assertThat(objectMapper.readValue(json[i], type)).isEqualTo(events[i]);
+        }
+
+        Result binaryEncode = measure(i -> EventCodec.encode(events[i]).length);
+        Result jsonEncode = measure(i -> objectMapper.writeValueAsBytes(events[i]).length);
+        Result binaryDecode = measure(i -> EventCodec.decode(binary[i]).hashCode());
+        Result jsonDecode = measure(i -> objectMapper.readValue(json[i], type).hashCode());
+
+        System.out.printf("  %s: binary %.1f bytes/message, JSON %.1f bytes/message (%.0f%%)%n", name,
+                binaryBytes / (double) events.length, jsonBytes / (double) events.length,
+                100.0 * binaryBytes / jsonBytes);
+        print("encode", "binary", binaryEncode);
+        print("encode", "JSON", jsonEncode);
+        print("decode", "binary", binaryDecode);
+        print("decode", "JSON", jsonDecode);
+    }
+
+    private Result measure(Operation operation) throws IOException {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(operation);
+        }
+        long thread = Thread.currentThread().getId();
+        double[] nanos = new double[ROUNDS];
+        double[] allocations = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            run(operation);
+            nanos[round] = (System.nanoTime() - start) / (double) OPERATIONS;
+            allocations[round] = (THREADS.getThreadAllocatedBytes(thread) - allocatedBefore) / (double) OPERATIONS;
+        }
+        return new Result(median(nanos), median(allocations));
+    }
+
+    private void run(Operation operation) throws IOException {
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            sum += operation.apply(i & (DISTINCT_EVENTS - 1));
+        }
+        sink += sum;
+    }
+
+    private static void print(String operation, String format, Result result) {
+        System.out.printf("    %s %-6s %8.1f ns/op %8.1f bytes allocated/op%n", operation, format, result.nanosPerOp,
+                result.bytesPerOp);
+    }
+
+    private static ShipmentEvent shipment(Random random) {
+        String status = STATUSES.get(random.nextInt(STATUSES.size()));
+        return new ShipmentEvent(UUID.randomUUID().toString(), status, "Shipment " + status.toLowerCase(),
+                1L + random.nextInt(500), Math.round(random.nextDouble() * 20_000) / 10.0,
+                CITIES.get(random.nextInt(CITIES.size())), CITIES.get(random.nextInt(CITIES.size())),
+                String.format("NL-%02d-%03d", random.nextInt(100), random.nextInt(1000)),
+                1_760_000_000_000L + random.nextInt(86_400_000));
+    }
+
+    private static RouteEvent route(Random random) {
+        return new RouteEvent(CITIES.get(random.nextInt(CITIES.size())), CITIES.get(random.nextInt(CITIES.size())),
+                1_760_000_000_000L + random.nextInt(86_400_000), Math.round(random.nextDouble() * 20_000) / 10.0);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        long apply(int index) throws IOException;
+    }
+
+    private record Result(double nanosPerOp, double bytesPerOp) {
+    }
+}
@@ -9,11 +9,13 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableJpaRepositories(basePackages = "com.logistics.fleetservice.repository")
 @EntityScan(basePackages = "com.logistics.fleetservice.domain")
+@EnableScheduling
 public class FleetServiceApplication {
 
     public static void main(String[] args) {
@@ -25,10 +27,10 @@ public class FleetServiceApplication {
         return args -> {
             if (repository.count() == 0) {
                 // Updated to save Vehicles (Plate Number, Model, Type, Capacity, Fuel/Status)
-                repository.save(new Vehicle(null, "CJ-99-LOG", "Mercedes-Benz Sprinter", "VAN", 1500.0, 100, true));
-                repository.save(new Vehicle(null, "B-102-TFL", "Volvo FH16", "HEAVY_TRUCK", 24000.0, 80, true));
-                repository.save(new Vehicle(null, "CJ-22-DEL", "Ford Transit", "VAN", 2000.0, 95, true));
-                repository.save(new Vehicle(null, "B-55-FAST", "Scania R500", "HEAVY_TRUCK", 18000.0, 100, true));
+                repository.save(new Vehicle(null, "CJ-99-LOG", "Mercedes-Benz Sprinter", "VAN", 1500.0, 100, null, true, null));
+                repository.save(new Vehicle(null, "B-102-TFL", "Volvo FH16", "HEAVY_TRUCK", 24000.0, 80, null, true, null));
+                repository.save(new Vehicle(null, "CJ-22-DEL", "Ford Transit", "VAN", 2000.0, 95, null, true, null));
+                repository.save(new Vehicle(null, "B-55-FAST", "Scania R500", "HEAVY_TRUCK", 18000.0, 100, null, true, null));
             }
         };
     }
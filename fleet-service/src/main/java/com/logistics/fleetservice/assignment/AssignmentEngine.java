@@ -0,0 +1,240 @@
+package com.logistics.fleetservice.assignment;
+
+import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.dto.AssignmentPlan;
+import com.logistics.fleetservice.dto.PendingShipment;
+import com.logistics.fleetservice.dto.VehicleLoad;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+// Packs pending shipments onto available vehicles with best-fit-decreasing, one independent bin-packing per origin
+@Component
+public class AssignmentEngine {
+
+    private static final double EPSILON = 1e-9;
+
+    private final ForkJoinPool pool;
+
+    public AssignmentEngine(@Value("${fleet.assignment.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public AssignmentPlan plan(List<PendingShipment> shipments, List<Vehicle> fleet) {
+        long start = System.nanoTime();
+
+        List<String> unassigned = new ArrayList<>();
+        Map<String, List<PendingShipment>> byOrigin = new HashMap<>();
+        for (PendingShipment shipment : shipments) {
+            if (shipment.getWeight() == null || shipment.getWeight() <= 0 || shipment.getOrigin() == null) {
+                unassigned.add(shipment.getTrackingId());
+            } else {
+                byOrigin.computeIfAbsent(shipment.getOrigin(), origin -> new ArrayList<>()).add(shipment);
+            }
+        }
+
+        Map<String, List<Vehicle>> allocation = allocateFleet(byOrigin, fleet);
+        List<Vehicle> spare = allocation.remove(null);
+
+        // Origins never share a vehicle, so each one is packed on its own fork-join worker
+        List<OriginPacking> packings = pool.submit(() -> byOrigin.entrySet().parallelStream()
+                .map(entry -> new OriginPacking(entry.getKey(), allocation.getOrDefault(entry.getKey(), List.of()))
+                        .pack(entry.getValue()))
+                .toList()).join();
+
+        // Shipments that did not fit their origin's share get one more pass over the vehicles nobody used
+        Vehicles spareVehicles = new Vehicles(spare != null ? spare : List.of());
+        for (OriginPacking packing : packings) {
+            spareVehicles.absorb(packing.idle);
+        }
+        List<VehicleLoad> loads = new ArrayList<>();
+        double totalLoad = 0;
+        double totalCapacity = 0;
+        for (OriginPacking packing : packings) {
+            packing.overflow(spareVehicles);
+            unassigned.addAll(packing.unassigned);
+            for (Load load : packing.loads) {
+                loads.add(load.toVehicleLoad());
+                totalLoad += load.loadKg;
+                totalCapacity += load.capacityKg;
+            }
+        }
+
+        double fillRatio = totalCapacity > 0 ? totalLoad / totalCapacity : 0;
+        return new AssignmentPlan(loads, unassigned, fillRatio, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Splits the fleet between origins, largest vehicles first, always to the origin with the most uncovered weight.
+    // Vehicles left once every origin is covered are returned under the null key.
+    private Map<String, List<Vehicle>> allocateFleet(Map<String, List<PendingShipment>> byOrigin, List<Vehicle> fleet) {
+        Map<String, List<Vehicle>> allocation = new HashMap<>();
+        PriorityQueue<double[]> demand = new PriorityQueue<>(Comparator.comparingDouble((double[] d) -> -d[1]));
+        List<String> origins = new ArrayList<>(byOrigin.keySet());
+        for (int i = 0; i < origins.size(); i++) {
+            double weight = 0;
+            for (PendingShipment shipment : byOrigin.get(origins.get(i))) {
+                weight += shipment.getWeight();
+            }
+            demand.add(new double[]{i, weight});
+        }
+
+        List<Vehicle> sorted = new ArrayList<>(fleet);
+        sorted.sort(Comparator.comparingDouble(AssignmentEngine::capacityOf).reversed());
+        for (Vehicle vehicle : sorted) {
+            double[] neediest = demand.peek();
+            if (neediest == null || neediest[1] <= 0) {
+                allocation.computeIfAbsent(null, key -> new ArrayList<>()).add(vehicle);
+                continue;
+            }
+            demand.poll();
+            allocation.computeIfAbsent(origins.get((int) neediest[0]), key -> new ArrayList<>()).add(vehicle);
+            neediest[1] -= capacityOf(vehicle);
+            demand.add(neediest);
+        }
+        return allocation;
+    }
+
+    private static double capacityOf(Vehicle vehicle) {
+        return vehicle.getCapacityKg() != null ? vehicle.getCapacityKg() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // Best-fit-decreasing for one origin: heaviest shipment first, into the open vehicle with the least room
+    // that still fits it, otherwise into the smallest idle vehicle that fits
+    private static final class OriginPacking {
+        private final String origin;
+        private final Vehicles idle;
+        private final TreeMap<Double, Deque<Load>> open = new TreeMap<>();
+        private final List<Load> loads = new ArrayList<>();
+        private final List<String> unassigned = new ArrayList<>();
+        private List<PendingShipment> overflow = new ArrayList<>();
+
+        private OriginPacking(String origin, List<Vehicle> vehicles) {
+            this.origin = origin;
+            this.idle = new Vehicles(vehicles);
+        }
+
+        private OriginPacking pack(List<PendingShipment> shipments) {
+            List<PendingShipment> sorted = new ArrayList<>(shipments);
+            sorted.sort(Comparator.comparingDouble(PendingShipment::getWeight).reversed());
+            for (PendingShipment shipment : sorted) {
+                if (!place(shipment, idle)) {
+                    overflow.add(shipment);
+                }
+            }
+            return this;
+        }
+
+        private void overflow(Vehicles spare) {
+            for (PendingShipment shipment : overflow) {
+                if (!place(shipment, spare)) {
+                    unassigned.add(shipment.getTrackingId());
+                }
+            }
+            overflow = List.of();
+        }
+
+        private boolean place(PendingShipment shipment, Vehicles candidates) {
+            double weight = shipment.getWeight();
+            Load load = take(open, weight);
+            if (load == null) {
+                Vehicle vehicle = candidates.takeSmallestFitting(weight);
+                if (vehicle == null) {
+                    return false;
+                }
+                load = new Load(vehicle, origin);
+                loads.add(load);
+            }
+            load.add(shipment);
+            double remaining = load.remaining();
+            if (remaining > EPSILON) {
+                open.computeIfAbsent(remaining, key -> new ArrayDeque<>()).add(load);
+            }
+            return true;
+        }
+
+        private static Load take(TreeMap<Double, Deque<Load>> byRemaining, double weight) {
+            Map.Entry<Double, Deque<Load>> entry = byRemaining.ceilingEntry(weight - EPSILON);
+            if (entry == null) {
+                return null;
+            }
+            Load load = entry.getValue().poll();
+            if (entry.getValue().isEmpty()) {
+                byRemaining.remove(entry.getKey());
+            }
+            return load;
+        }
+    }
+
+    // Idle vehicles ordered by capacity
+    private static final class Vehicles {
+        private final TreeMap<Double, Deque<Vehicle>> byCapacity = new TreeMap<>();
+
+        private Vehicles(List<Vehicle> vehicles) {
+            for (Vehicle vehicle : vehicles) {
+                byCapacity.computeIfAbsent(capacityOf(vehicle), key -> new ArrayDeque<>()).add(vehicle);
+            }
+        }
+
+        private void absorb(Vehicles other) {
+            other.byCapacity.forEach((capacity, vehicles) ->
+                    byCapacity.computeIfAbsent(capacity, key -> new ArrayDeque<>()).addAll(vehicles));
+            other.byCapacity.clear();
+        }
+
+        private Vehicle takeSmallestFitting(double weight) {
+            Map.Entry<Double, Deque<Vehicle>> entry = byCapacity.ceilingEntry(weight - EPSILON);
+            if (entry == null) {
+                return null;
+            }
+            Vehicle vehicle = entry.getValue().poll();
+            if (entry.getValue().isEmpty()) {
+                byCapacity.remove(entry.getKey());
+            }
+            return vehicle;
+        }
+    }
+
+    private static final class Load {
+        private final Vehicle vehicle;
+        private final String origin;
+        private final double capacityKg;
+        private final List<String> trackingIds = new ArrayList<>();
+        private double loadKg;
+
+        private Load(Vehicle vehicle, String origin) {
+            this.vehicle = vehicle;
+            this.origin = origin;
+            this.capacityKg = capacityOf(vehicle);
+        }
+
+        private void add(PendingShipment shipment) {
+            trackingIds.add(shipment.getTrackingId());
+            loadKg += shipment.getWeight();
+        }
+
+        private double remaining() {
+            return capacityKg - loadKg;
+        }
+
+        private VehicleLoad toVehicleLoad() {
+            return new VehicleLoad(vehicle.getId(), vehicle.getLicensePlate(), origin, capacityKg, loadKg,
+                    capacityKg > 0 ? loadKg / capacityKg : 0, trackingIds);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.logistics.fleetservice.controller;
+
+import com.logistics.fleetservice.dto.TelemetryAck;
+import com.logistics.fleetservice.dto.TelemetryStats;
+import com.logistics.fleetservice.telemetry.TelemetryWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/vehicles/telemetry")
+@RequiredArgsConstructor
+public class TelemetryController {
+
+    private final TelemetryWriter telemetryWriter;
+
+    // Body is newline-separated "vehicleId,timestampMs,fuelLevel,odometerKm,lat,lon" lines.
+    // Samples are acknowledged once buffered; 429 tells the sender some were shed and should be resent later.
+    @PostMapping(consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<TelemetryAck> ingest(@RequestBody byte[] body) {
+        TelemetryAck ack = telemetryWriter.ingest(body);
+        HttpStatus status = ack.getShed() > 0 ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(ack);
+    }
+
+    @GetMapping("/stats")
+    public TelemetryStats getStats() {
+        return telemetryWriter.getStats();
+    }
+}
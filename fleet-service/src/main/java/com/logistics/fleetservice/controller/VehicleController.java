@@ -1,9 +1,24 @@
 package com.logistics.fleetservice.controller;
 
+import com.logistics.fleetservice.assignment.AssignmentEngine;
+import com.logistics.fleetservice.dto.AssignmentPlan;
+import com.logistics.fleetservice.dto.PendingShipment;
+import com.logistics.fleetservice.dto.Reservation;
+import com.logistics.fleetservice.dto.ReservationRequest;
+import com.logistics.fleetservice.dto.VehicleSummary;
+import com.logistics.fleetservice.index.VehicleAvailabilityIndex;
 import com.logistics.fleetservice.repository.VehicleRepository;
+import com.logistics.fleetservice.service.FleetVersion;
 import com.logistics.fleetservice.domain.Vehicle;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -13,18 +28,70 @@ import java.util.List;
 @RequiredArgsConstructor
 public class VehicleController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final VehicleRepository vehicleRepository;
+    private final VehicleAvailabilityIndex availabilityIndex;
+    private final AssignmentEngine assignmentEngine;
+    private final FleetVersion fleetVersion;
+
+    @Value("${fleet.index.hold-seconds:300}")
+    private long defaultHoldSeconds;
 
+    // Unchanged polls are answered with 304 from the fleet version alone, without a DB query.
+    // Without page or size the whole list comes back unpaged, as existing clients expect
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Vehicle> getAllItems() {
-        return vehicleRepository.findAll();
+    public ResponseEntity<List<VehicleSummary>> getAllItems(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Double minCapacity,
+            @RequestParam(required = false) Integer minFuel,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged(Sort.by("id"))
+                : PageRequest.of(Math.max(page != null ? page : 0, 0),
+                        Math.max(1, Math.min(size != null ? size : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE)), Sort.by("id"));
+        String pageKey = pageable.isPaged() ? pageable.getPageNumber() + "|" + pageable.getPageSize() : "all";
+        String query = pageKey + "|" + type + "|" + available + "|" + minCapacity + "|" + minFuel;
+        String etag = "\"" + fleetVersion.current() + "-" + Integer.toHexString(query.hashCode()) + "\"";
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        Slice<VehicleSummary> slice = vehicleRepository.findSummaries(type, available, minCapacity, minFuel, pageable);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header("X-Has-Next", String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Vehicle createItem(@RequestBody Vehicle vehicle) {
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        availabilityIndex.upsert(saved);
+        fleetVersion.bumpAfterCommit();
+        return saved;
+    }
+
+    // Claims the smallest available vehicle that fits, from memory, without a DB row lock
+    @PostMapping("/reserve")
+    public ResponseEntity<Reservation> reserve(@RequestBody ReservationRequest request) {
+        long holdSeconds = request.getHoldSeconds() != null ? request.getHoldSeconds() : defaultHoldSeconds;
+        return availabilityIndex.reserve(request.getVehicleType(), request.getWeightKg(), holdSeconds * 1000)
+                .map(slot -> ResponseEntity.ok(new Reservation(slot.getId(), slot.getLicensePlate(),
+                        slot.getVehicleType(), slot.getCapacityKg(), slot.getHoldUntil())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @DeleteMapping("/reserve/{id}")
+    public ResponseEntity<Void> release(@PathVariable Long id, @RequestParam long holdUntil) {
+        return availabilityIndex.release(id, holdUntil)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
     }
 
     @GetMapping("/{id}")
@@ -33,4 +100,15 @@ public class VehicleController {
         return vehicleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
     }
+
+    // Proposes a vehicle for every pending shipment; nothing is booked until the shipments are dispatched.
+    // Vehicles held by a reservation, or already assigned in the index, are left out of the plan
+    @PostMapping("/assignments")
+    @ResponseStatus(HttpStatus.OK)
+    public AssignmentPlan planAssignments(@RequestBody List<PendingShipment> shipments) {
+        List<Vehicle> candidates = vehicleRepository.findByIsAvailableTrue().stream()
+                .filter(vehicle -> availabilityIndex.isFree(vehicle.getId()))
+                .toList();
+        return assignmentEngine.plan(shipments, candidates);
+    }
 }
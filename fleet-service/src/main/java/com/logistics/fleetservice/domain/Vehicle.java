@@ -2,11 +2,14 @@ package com.logistics.fleetservice.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 import org.hibernate.proxy.HibernateProxy;
 import java.util.Objects;
 
 @Entity
 @Table(name = "t_vehicles")
+@DynamicUpdate // availability flips must not write back a stale fuel level over telemetry
 @Getter
 @Setter
 @ToString
@@ -23,12 +26,24 @@ public class Vehicle {
     private String model;
     private String vehicleType;
     private Double capacityKg;
+
+    // Fuel is written by TelemetryWriter outside JPA and must not conflict with assignment updates
+    @OptimisticLock(excluded = true)
     private Integer fuelLevel;
 
+    // recorded_at of the sample behind fuelLevel, so a late sample never overwrites a newer reading
+    @OptimisticLock(excluded = true)
+    private Long fuelUpdatedAt;
+
     @Builder.Default
     @Setter
     private boolean isAvailable = true; // New vehicles are available by default
 
+    // Optimistic lock: two consumers flipping the same vehicle cannot both commit
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
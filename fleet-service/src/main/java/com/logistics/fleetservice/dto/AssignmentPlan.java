@@ -0,0 +1,17 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AssignmentPlan {
+    private List<VehicleLoad> loads;
+    private List<String> unassigned;    // No available vehicle could take these shipments
+    private double fillRatio;           // Total load / total capacity of the vehicles used
+    private long elapsedMs;
+}
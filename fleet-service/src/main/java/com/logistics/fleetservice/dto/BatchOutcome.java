@@ -0,0 +1,24 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOutcome {
+    private int assigned;
+    private int alreadyOccupied;
+    private int notFound;
+    private int rejected;
+    private int deadLettered;
+
+    public void add(BatchOutcome other) {
+        assigned += other.assigned;
+        alreadyOccupied += other.alreadyOccupied;
+        notFound += other.notFound;
+        rejected += other.rejected;
+        deadLettered += other.deadLettered;
+    }
+}
@@ -1,4 +1,4 @@
-package com.logistics.shippingservice.dto;
+package com.logistics.fleetservice.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,14 +7,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class ShipmentEvent {
+public class PendingShipment {
     private String trackingId;
-    private String status;
-    private String message;
-    private Long vehicleId;
     private Double weight;
-
     private String origin;
     private String destination;
-    private String licensePlate;
 }
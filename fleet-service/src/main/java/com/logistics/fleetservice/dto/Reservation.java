@@ -0,0 +1,16 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Reservation {
+    private Long vehicleId;
+    private String licensePlate;
+    private String vehicleType;
+    private double capacityKg;
+    private long holdUntil;         // Epoch millis; the vehicle is offered again after this unless dispatched
+}
@@ -0,0 +1,14 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationRequest {
+    private double weightKg;
+    private String vehicleType;     // Optional; any type when null
+    private Long holdSeconds;       // Optional; fleet.index.hold-seconds when null
+}
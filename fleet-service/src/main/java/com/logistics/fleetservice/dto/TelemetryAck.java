@@ -0,0 +1,14 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TelemetryAck {
+    private long accepted;
+    private long malformed;
+    private long shed;      // Valid samples refused because the ring buffer was full; safe to resend
+}
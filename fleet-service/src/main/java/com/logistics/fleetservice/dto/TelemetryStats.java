@@ -0,0 +1,18 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TelemetryStats {
+    private long accepted;
+    private long malformed;
+    private long shed;
+    private long written;
+    private long failed;        // Samples lost because their flush failed
+    private long backlog;       // Samples waiting in the ring buffer
+    private int ringCapacity;
+}
@@ -0,0 +1,20 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleLoad {
+    private Long vehicleId;
+    private String licensePlate;
+    private String origin;
+    private double capacityKg;
+    private double loadKg;
+    private double fillRatio;
+    private List<String> trackingIds;
+}
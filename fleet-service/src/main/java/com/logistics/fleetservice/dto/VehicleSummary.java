@@ -0,0 +1,19 @@
+package com.logistics.fleetservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Listing projection: same JSON shape as Vehicle, without loading managed entities
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleSummary {
+    private Long id;
+    private String licensePlate;
+    private String model;
+    private String vehicleType;
+    private Double capacityKg;
+    private Integer fuelLevel;
+    private boolean available;
+}
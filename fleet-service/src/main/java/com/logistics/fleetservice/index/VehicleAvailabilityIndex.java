@@ -0,0 +1,146 @@
+package com.logistics.fleetservice.index;
+
+import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Available vehicles keyed by type and ordered by capacity, so "smallest vehicle that fits" is a tailMap walk
+@Component
+@RequiredArgsConstructor
+public class VehicleAvailabilityIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VehicleAvailabilityIndex.class);
+
+    private final VehicleRepository vehicleRepository;
+
+    private final Map<Long, VehicleSlot> slots = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Double, Set<VehicleSlot>>> byType = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Double, Set<VehicleSlot>> allTypes = new ConcurrentSkipListMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fleet.index.resync-ms:60000}", fixedDelayString = "${fleet.index.resync-ms:60000}")
+    public void resync() {
+        List<Vehicle> vehicles = vehicleRepository.findAll();
+        vehicles.forEach(this::upsert);
+        LOGGER.debug("Vehicle availability index synced with {} vehicles", vehicles.size());
+    }
+
+    public Optional<VehicleSlot> reserve(String vehicleType, double weightKg, long holdMillis) {
+        ConcurrentSkipListMap<Double, Set<VehicleSlot>> buckets = vehicleType == null ? allTypes : byType.get(vehicleType);
+        if (buckets == null) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        for (Set<VehicleSlot> bucket : buckets.tailMap(weightKg, true).values()) {
+            for (VehicleSlot slot : bucket) {
+                if (slot.tryClaim(now, now + holdMillis)) {
+                    return Optional.of(slot);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean release(Long vehicleId, long holdUntil) {
+        VehicleSlot slot = slots.get(vehicleId);
+        return slot != null && slot.release(holdUntil);
+    }
+
+    // Vehicles the index has not seen yet count as free; the database row is the only thing known about them
+    public boolean isFree(Long vehicleId) {
+        VehicleSlot slot = slots.get(vehicleId);
+        return slot == null || slot.isFree(System.currentTimeMillis());
+    }
+
+    public void upsert(Vehicle vehicle) {
+        VehicleSlot fresh = new VehicleSlot(vehicle);
+        VehicleSlot current = slots.get(vehicle.getId());
+
+        // A resync snapshot read before a commit this index already applied must not undo it
+        if (current != null && current.isNewerThan(vehicle)) {
+            return;
+        }
+
+        if (current == null || !current.sameShape(fresh)) {
+            if (current != null) {
+                removeFromBuckets(current);
+                // Seal the old slot and carry its claim over, so a live reservation hold survives the reshape
+                fresh.getClaim().set(current.getClaim().getAndSet(VehicleSlot.IN_USE));
+            }
+            slots.put(fresh.getId(), fresh);
+            current = fresh;
+        }
+        current.advanceVersion(VehicleSlot.versionOf(vehicle));
+
+        if (vehicle.isAvailable()) {
+            // Back in service; an active reservation hold is left untouched
+            current.getClaim().compareAndSet(VehicleSlot.IN_USE, VehicleSlot.AVAILABLE);
+            addToBuckets(current);
+        } else {
+            markInUse(current);
+        }
+    }
+
+    // Consumers call this inside their transaction; the index only changes once the UPDATE is committed,
+    // and records the committed version so an older resync snapshot cannot flip the vehicle back
+    public void markInUseAfterCommit(Collection<Vehicle> vehicles) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            vehicles.forEach(this::markInUse);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                vehicles.forEach(VehicleAvailabilityIndex.this::markInUse);
+            }
+        });
+    }
+
+    private void markInUse(Vehicle vehicle) {
+        VehicleSlot slot = slots.get(vehicle.getId());
+        if (slot != null) {
+            // Version first: a resync racing with this call then sees the slot as newer and leaves it alone
+            slot.advanceVersion(VehicleSlot.versionOf(vehicle));
+            markInUse(slot);
+        }
+    }
+
+    private void markInUse(VehicleSlot slot) {
+        slot.getClaim().set(VehicleSlot.IN_USE);
+        removeFromBuckets(slot);
+    }
+
+    private void addToBuckets(VehicleSlot slot) {
+        bucket(byType.computeIfAbsent(String.valueOf(slot.getVehicleType()), type -> new ConcurrentSkipListMap<>()), slot).add(slot);
+        bucket(allTypes, slot).add(slot);
+    }
+
+    private void removeFromBuckets(VehicleSlot slot) {
+        ConcurrentSkipListMap<Double, Set<VehicleSlot>> typeBuckets = byType.get(String.valueOf(slot.getVehicleType()));
+        if (typeBuckets != null) {
+            bucket(typeBuckets, slot).remove(slot);
+        }
+        bucket(allTypes, slot).remove(slot);
+    }
+
+    private Set<VehicleSlot> bucket(ConcurrentSkipListMap<Double, Set<VehicleSlot>> buckets, VehicleSlot slot) {
+        return buckets.computeIfAbsent(slot.getCapacityKg(), capacity -> ConcurrentHashMap.newKeySet());
+    }
+}
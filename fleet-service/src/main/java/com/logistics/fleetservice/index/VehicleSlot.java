@@ -0,0 +1,74 @@
+package com.logistics.fleetservice.index;
+
+import com.logistics.fleetservice.domain.Vehicle;
+import lombok.Getter;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One vehicle in the availability index. The claim word is the only mutable state and only ever changes by CAS
+@Getter
+public class VehicleSlot {
+
+    static final long AVAILABLE = 0L;
+    static final long IN_USE = -1L;     // Unavailable in the database; any positive value is a hold expiry (epoch ms)
+
+    private final Long id;
+    private final String licensePlate;
+    private final String vehicleType;
+    private final double capacityKg;
+    private final AtomicLong claim = new AtomicLong(AVAILABLE);
+    private final AtomicLong version;   // Highest vehicle row version applied; older snapshots are ignored
+
+    VehicleSlot(Vehicle vehicle) {
+        this.id = vehicle.getId();
+        this.licensePlate = vehicle.getLicensePlate();
+        this.vehicleType = vehicle.getVehicleType();
+        this.capacityKg = vehicle.getCapacityKg() != null ? vehicle.getCapacityKg() : 0.0;
+        this.version = new AtomicLong(versionOf(vehicle));
+    }
+
+    static long versionOf(Vehicle vehicle) {
+        return vehicle.getVersion() != null ? vehicle.getVersion() : 0L;
+    }
+
+    boolean isNewerThan(Vehicle vehicle) {
+        return version.get() > versionOf(vehicle);
+    }
+
+    void advanceVersion(long seen) {
+        version.accumulateAndGet(seen, Math::max);
+    }
+
+    // Free, or held by a reservation that has expired
+    boolean tryClaim(long now, long holdUntil) {
+        while (true) {
+            long current = claim.get();
+            if (current == IN_USE || current > now) {
+                return false;
+            }
+            if (claim.compareAndSet(current, holdUntil)) {
+                return true;
+            }
+        }
+    }
+
+    // Neither assigned nor under a live reservation hold
+    boolean isFree(long now) {
+        long current = claim.get();
+        return current != IN_USE && current <= now;
+    }
+
+    boolean release(long holdUntil) {
+        return claim.compareAndSet(holdUntil, AVAILABLE);
+    }
+
+    public long getHoldUntil() {
+        return Math.max(claim.get(), 0L);
+    }
+
+    boolean sameShape(VehicleSlot other) {
+        return Objects.equals(vehicleType, other.vehicleType) && capacityKg == other.capacityKg
+                && Objects.equals(licensePlate, other.licensePlate);
+    }
+}
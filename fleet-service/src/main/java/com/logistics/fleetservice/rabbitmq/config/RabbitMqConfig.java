@@ -1,22 +1,74 @@
 package com.logistics.fleetservice.rabbitmq.config;
 
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.contract.amqp.EventMessageConverter;
+import com.logistics.contract.wire.WireFormat;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
 @Configuration
 public class RabbitMqConfig {
     public static final String QUEUE = "shipment_dispatch_queue";//"shipment_queue";
+    public static final String DEAD_LETTER_QUEUE = QUEUE + ".dlq";
+    public static final String BATCH_CONTAINER_FACTORY = "batchContainerFactory";
+
+    // __TypeId__ values written by JSON producers from before the events moved into event-contract
+    static final Map<String, Class<?>> LEGACY_TYPE_IDS = Map.of(
+            "com.logistics.shippingservice.dto.ShipmentEvent", ShipmentEvent.class,
+            "com.logistics.fleetservice.rabbitmq.dto.ShipmentEvent", ShipmentEvent.class);
 
     @Bean
     public Queue queue() {
         return new Queue(QUEUE);
     }
 
+    // Parks messages the batch listeners cannot decode, for inspection or replay
+    @Bean
+    public Queue deadLetterQueue() {
+        return new Queue(DEAD_LETTER_QUEUE);
+    }
+
+    // Reads binary and JSON shipment events alike, so fleet can be rolled out ahead of shipping. Batch messages are
+    // converted without an inferred type, so JSON is typed by its __TypeId__ header: the old producers' class names
+    // are mapped onto the shared event, and otherwise only event-contract types are trusted
     @Bean
     public MessageConverter converter() {
-        return new Jackson2JsonMessageConverter();
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setTrustedPackages(ShipmentEvent.class.getPackageName());
+        typeMapper.setIdClassMapping(LEGACY_TYPE_IDS);
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+        json.setJavaTypeMapper(typeMapper);
+        return new EventMessageConverter(json, WireFormat.BINARY);
+    }
+
+    // Hands the listener up to batch-size messages at once (or fewer after receive-timeout-ms of quiet).
+    // Messages arrive unconverted; ShipmentBatchDecoder converts them one by one
+    @Bean(name = BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory batchContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${fleet.consumer.batch-size:200}") int batchSize,
+            @Value("${fleet.consumer.prefetch:500}") int prefetch,
+            @Value("${fleet.consumer.concurrency:1}") int concurrency,
+            @Value("${fleet.consumer.max-concurrency:1}") int maxConcurrency,
+            @Value("${fleet.consumer.receive-timeout-ms:100}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
     }
 }
@@ -0,0 +1,84 @@
+package com.logistics.fleetservice.rabbitmq.consumer;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.contract.metrics.DispatchLagMetrics;
+import com.logistics.fleetservice.dto.BatchOutcome;
+import com.logistics.fleetservice.rabbitmq.config.RabbitMqConfig;
+import com.logistics.fleetservice.service.OptimisticRetry;
+import com.logistics.fleetservice.service.TransientFailures;
+import com.logistics.fleetservice.service.VehicleAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fleet.consumer.mode", havingValue = "batch", matchIfMissing = true)
+public class FleetBatchConsumer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetBatchConsumer.class);
+    private final VehicleAvailabilityService vehicleAvailabilityService;
+    private final DispatchLagMetrics dispatchLagMetrics;
+    private final ShipmentBatchDecoder shipmentBatchDecoder;
+    private final ShipmentDeadLetters shipmentDeadLetters;
+
+    @Value("${fleet.consumer.max-attempts:5}")
+    private int maxAttempts;
+
+    @RabbitListener(queues = RabbitMqConfig.QUEUE, containerFactory = RabbitMqConfig.BATCH_CONTAINER_FACTORY)
+    public void consume(List<Message> messages) {
+        List<ShipmentEvent> events = shipmentBatchDecoder.decode(messages);
+        recordLag(dispatchLagMetrics, events);
+        BatchOutcome outcome = applyIsolated(vehicleAvailabilityService, shipmentDeadLetters, events, maxAttempts);
+        LOGGER.info("Processed {} shipment events -> {}", events.size(), outcome);
+    }
+
+    static void recordLag(DispatchLagMetrics metrics, List<ShipmentEvent> events) {
+        for (ShipmentEvent event : events) {
+            if (event != null) {
+                metrics.record(event.getDispatchedAt());
+            }
+        }
+    }
+
+    // Version conflicts are retried against fresh rows; any other failure falls back to one transaction
+    // per event so a single bad message does not poison the rest of the batch. An event that still fails
+    // after its own retries is dead-lettered rather than lost with the acked batch. A transient database
+    // failure is rethrown instead: the container rejects the batch and it is redelivered once the database
+    // is back, rather than an outage draining the queue into the dead-letter queue
+    static BatchOutcome applyIsolated(VehicleAvailabilityService service, ShipmentDeadLetters deadLetters,
+                                      List<ShipmentEvent> events, int maxAttempts) {
+        try {
+            return OptimisticRetry.run(() -> service.applyBatch(events), maxAttempts);
+        } catch (RuntimeException e) {
+            if (TransientFailures.isTransient(e)) {
+                throw e;
+            }
+            LOGGER.warn("Batch of {} shipment events failed ({}), retrying individually", events.size(), e.getMessage());
+        }
+
+        BatchOutcome outcome = new BatchOutcome();
+        for (ShipmentEvent event : events) {
+            try {
+                outcome.add(OptimisticRetry.run(() -> service.applyBatch(Collections.singletonList(event)), maxAttempts));
+            } catch (RuntimeException e) {
+                if (TransientFailures.isTransient(e)) {
+                    throw e;
+                }
+                LOGGER.error("Dead-lettering shipment event {} for vehicle {} after {} attempts: {}",
+                        event.getTrackingId(), event.getVehicleId(), maxAttempts, e.getMessage());
+                deadLetters.publish(event, e.getMessage());
+                outcome.setDeadLettered(outcome.getDeadLettered() + 1);
+            }
+        }
+        return outcome;
+    }
+}
@@ -1,27 +1,39 @@
 package com.logistics.fleetservice.rabbitmq.consumer;
 
-import com.logistics.fleetservice.rabbitmq.dto.ShipmentEvent;
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.contract.metrics.DispatchLagMetrics;
+import com.logistics.fleetservice.index.VehicleAvailabilityIndex;
 import com.logistics.fleetservice.repository.VehicleRepository;
+import com.logistics.fleetservice.service.FleetVersion;
 import com.logistics.fleetservice.domain.Vehicle;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+// One event per transaction; FleetBatchConsumer replaces it unless fleet.consumer.mode=single
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "fleet.consumer.mode", havingValue = "single")
 public class FleetConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FleetConsumer.class);
     private final VehicleRepository vehicleRepository;
+    private final VehicleAvailabilityIndex availabilityIndex;
+    private final FleetVersion fleetVersion;
+    private final DispatchLagMetrics dispatchLagMetrics;
 
     @RabbitListener(queues = "shipment_dispatch_queue")//"shipment_queue")
     @Transactional
     public void consume(ShipmentEvent event) {
 
         LOGGER.info("Received shipment event -> {}", event);
+        dispatchLagMetrics.record(event.getDispatchedAt());
 
         Vehicle vehicle = vehicleRepository.findById(event.getVehicleId()).orElse(null);
 
@@ -29,6 +41,8 @@ public class FleetConsumer {
             if (vehicle.isAvailable()) {
                 vehicle.setAvailable(false);
                 vehicleRepository.save(vehicle);
+                availabilityIndex.markInUseAfterCommit(List.of(vehicle));
+                fleetVersion.bumpAfterCommit();
 
                 LOGGER.info("Vehicle {} is now IN_TRANSIT.", vehicle.getLicensePlate());
             } else {
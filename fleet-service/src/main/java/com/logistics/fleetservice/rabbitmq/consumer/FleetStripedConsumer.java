@@ -0,0 +1,80 @@
+package com.logistics.fleetservice.rabbitmq.consumer;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.contract.metrics.DispatchLagMetrics;
+import com.logistics.fleetservice.dto.BatchOutcome;
+import com.logistics.fleetservice.rabbitmq.config.RabbitMqConfig;
+import com.logistics.fleetservice.service.StripedExecutor;
+import com.logistics.fleetservice.service.VehicleAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Splits each batch by vehicle lane: events for one vehicle stay in order, different vehicles run in parallel
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fleet.consumer.mode", havingValue = "striped")
+public class FleetStripedConsumer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetStripedConsumer.class);
+    private final VehicleAvailabilityService vehicleAvailabilityService;
+    private final StripedExecutor stripedExecutor;
+    private final DispatchLagMetrics dispatchLagMetrics;
+    private final ShipmentBatchDecoder shipmentBatchDecoder;
+    private final ShipmentDeadLetters shipmentDeadLetters;
+
+    @Value("${fleet.consumer.max-attempts:5}")
+    private int maxAttempts;
+
+    @RabbitListener(queues = RabbitMqConfig.QUEUE, containerFactory = RabbitMqConfig.BATCH_CONTAINER_FACTORY)
+    public void consume(List<Message> messages) {
+        List<ShipmentEvent> events = shipmentBatchDecoder.decode(messages);
+        FleetBatchConsumer.recordLag(dispatchLagMetrics, events);
+        List<List<ShipmentEvent>> lanes = new ArrayList<>(stripedExecutor.laneCount());
+        for (int i = 0; i < stripedExecutor.laneCount(); i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (ShipmentEvent event : events) {
+            Long vehicleId = event != null ? event.getVehicleId() : null;
+            lanes.get(vehicleId != null ? stripedExecutor.laneFor(vehicleId) : 0).add(event);
+        }
+
+        List<CompletableFuture<BatchOutcome>> results = new ArrayList<>();
+        for (int lane = 0; lane < lanes.size(); lane++) {
+            List<ShipmentEvent> laneEvents = lanes.get(lane);
+            if (!laneEvents.isEmpty()) {
+                results.add(stripedExecutor.submit(lane,
+                        () -> FleetBatchConsumer.applyIsolated(vehicleAvailabilityService, shipmentDeadLetters,
+                                laneEvents, maxAttempts)));
+            }
+        }
+
+        // The batch is acked only after every lane has finished with it. A lane that hit a transient failure
+        // rejects the whole batch, but only once the other lanes are done with it
+        BatchOutcome outcome = new BatchOutcome();
+        RuntimeException failure = null;
+        for (CompletableFuture<BatchOutcome> result : results) {
+            try {
+                outcome.add(result.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        LOGGER.info("Processed {} shipment events on {} lanes -> {}", events.size(), results.size(), outcome);
+    }
+}
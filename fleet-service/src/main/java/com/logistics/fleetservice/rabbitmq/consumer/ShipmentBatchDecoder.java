@@ -0,0 +1,44 @@
+package com.logistics.fleetservice.rabbitmq.consumer;
+
+import com.logistics.contract.ShipmentEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Batch listeners receive raw messages and convert them here one by one: an unreadable message is moved to
+// the dead-letter queue on its own instead of failing the conversion, and with it the whole batch
+@Component
+@RequiredArgsConstructor
+public class ShipmentBatchDecoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShipmentBatchDecoder.class);
+    private final MessageConverter converter;
+    private final ShipmentDeadLetters deadLetters;
+
+    public List<ShipmentEvent> decode(List<Message> messages) {
+        List<ShipmentEvent> events = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            try {
+                Object payload = converter.fromMessage(message);
+                if (!(payload instanceof ShipmentEvent event)) {
+                    throw new MessageConversionException("Not a shipment event: "
+                            + (payload != null ? payload.getClass().getName() : "null"));
+                }
+                events.add(event);
+            } catch (MessageConversionException e) {
+                LOGGER.error("Dead-lettering message {} (index {} of {}): {}",
+                        message.getMessageProperties().getMessageId(), i, messages.size(), e.getMessage());
+                deadLetters.publish(message, e.getMessage());
+            }
+        }
+        return events;
+    }
+}
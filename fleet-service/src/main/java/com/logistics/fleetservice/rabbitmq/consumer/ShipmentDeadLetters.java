@@ -0,0 +1,30 @@
+package com.logistics.fleetservice.rabbitmq.consumer;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.fleetservice.rabbitmq.config.RabbitMqConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+// Moves single messages or events the batch consumers gave up on to the dead-letter queue, with the reason in a header
+@Component
+@RequiredArgsConstructor
+public class ShipmentDeadLetters {
+
+    public static final String REASON_HEADER = "x-fleet-dead-letter-reason";
+
+    private final AmqpTemplate amqpTemplate;
+
+    public void publish(Message message, String reason) {
+        message.getMessageProperties().setHeader(REASON_HEADER, reason);
+        amqpTemplate.send(RabbitMqConfig.DEAD_LETTER_QUEUE, message);
+    }
+
+    public void publish(ShipmentEvent event, String reason) {
+        amqpTemplate.convertAndSend(RabbitMqConfig.DEAD_LETTER_QUEUE, event, message -> {
+            message.getMessageProperties().setHeader(REASON_HEADER, reason);
+            return message;
+        });
+    }
+}
@@ -1,6 +1,29 @@
 package com.logistics.fleetservice.repository;
 
 import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.dto.VehicleSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface VehicleRepository extends JpaRepository<Vehicle, Long> {}
+import java.util.List;
+
+public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+
+    // Slice, not Page: no COUNT(*) per poll
+    @Query("SELECT new com.logistics.fleetservice.dto.VehicleSummary(v.id, v.licensePlate, v.model, v.vehicleType,"
+            + " v.capacityKg, v.fuelLevel, v.isAvailable) FROM Vehicle v"
+            + " WHERE (:type IS NULL OR v.vehicleType = :type)"
+            + " AND (:available IS NULL OR v.isAvailable = :available)"
+            + " AND (:minCapacity IS NULL OR v.capacityKg >= :minCapacity)"
+            + " AND (:minFuel IS NULL OR v.fuelLevel >= :minFuel)")
+    Slice<VehicleSummary> findSummaries(@Param("type") String type,
+                                        @Param("available") Boolean available,
+                                        @Param("minCapacity") Double minCapacity,
+                                        @Param("minFuel") Integer minFuel,
+                                        Pageable pageable);
+
+    List<Vehicle> findByIsAvailableTrue();
+}
@@ -0,0 +1,29 @@
+package com.logistics.fleetservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.function.Supplier;
+
+// Re-runs a transactional unit of work when another consumer committed a newer vehicle version first
+public final class OptimisticRetry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T run(Supplier<T> work, int maxAttempts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                LOGGER.debug("Version conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+            }
+        }
+    }
+}
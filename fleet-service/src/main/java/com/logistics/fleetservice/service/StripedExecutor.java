@@ -0,0 +1,47 @@
+package com.logistics.fleetservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Fixed set of single-threaded lanes: work for the same key always runs on the same lane, in submit order
+@Component
+@ConditionalOnProperty(name = "fleet.consumer.mode", havingValue = "striped")
+public class StripedExecutor {
+
+    private final ExecutorService[] lanes;
+
+    public StripedExecutor(@Value("${fleet.consumer.lanes:0}") int laneCount) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String name = "vehicle-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int laneFor(Object key) {
+        return Math.floorMod(key.hashCode(), lanes.length);
+    }
+
+    public <T> CompletableFuture<T> submit(int lane, Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, lanes[lane]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.logistics.fleetservice.service;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.dto.BatchOutcome;
+import com.logistics.fleetservice.index.VehicleAvailabilityIndex;
+import com.logistics.fleetservice.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class VehicleAvailabilityService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VehicleAvailabilityService.class);
+    private final VehicleRepository vehicleRepository;
+    private final VehicleAvailabilityIndex availabilityIndex;
+    private final FleetVersion fleetVersion;
+
+    // One SELECT for the batch, changes applied in memory, one batched UPDATE flush on commit
+    @Transactional
+    public BatchOutcome applyBatch(List<ShipmentEvent> events) {
+        Set<Long> vehicleIds = new HashSet<>();
+        for (ShipmentEvent event : events) {
+            if (event != null && event.getVehicleId() != null) {
+                vehicleIds.add(event.getVehicleId());
+            }
+        }
+        Map<Long, Vehicle> vehicles = vehicleRepository.findAllById(vehicleIds).stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+
+        BatchOutcome outcome = new BatchOutcome();
+        List<Vehicle> changed = new ArrayList<>();
+        for (ShipmentEvent event : events) {
+            // A malformed event is skipped on its own instead of failing everything else in the batch
+            if (event == null || event.getVehicleId() == null) {
+                LOGGER.error("Rejected shipment event without a vehicle ID: {}", event);
+                outcome.setRejected(outcome.getRejected() + 1);
+                continue;
+            }
+
+            Vehicle vehicle = vehicles.get(event.getVehicleId());
+            if (vehicle == null) {
+                LOGGER.error("Vehicle with ID {} not found in database!", event.getVehicleId());
+                outcome.setNotFound(outcome.getNotFound() + 1);
+            } else if (vehicle.isAvailable()) {
+                vehicle.setAvailable(false);
+                changed.add(vehicle);
+                outcome.setAssigned(outcome.getAssigned() + 1);
+            } else {
+                LOGGER.warn("Vehicle ID: {} is already occupied!", event.getVehicleId());
+                outcome.setAlreadyOccupied(outcome.getAlreadyOccupied() + 1);
+            }
+        }
+
+        vehicleRepository.saveAll(changed);
+        availabilityIndex.markInUseAfterCommit(changed);
+        if (!changed.isEmpty()) {
+            fleetVersion.bumpAfterCommit();
+        }
+        return outcome;
+    }
+}
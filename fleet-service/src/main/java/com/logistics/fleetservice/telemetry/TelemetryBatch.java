@@ -0,0 +1,44 @@
+package com.logistics.fleetservice.telemetry;
+
+// Reusable writer-side batch, so steady-state flushing allocates nothing per sample
+public class TelemetryBatch {
+
+    final long[] vehicleIds;
+    final long[] recordedAt;
+    final int[] fuelLevels;
+    final double[] odometers;
+    final double[] latitudes;
+    final double[] longitudes;
+    int size;
+
+    public TelemetryBatch(int capacity) {
+        this.vehicleIds = new long[capacity];
+        this.recordedAt = new long[capacity];
+        this.fuelLevels = new int[capacity];
+        this.odometers = new double[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+    }
+
+    public int capacity() {
+        return vehicleIds.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void add(long vehicleId, long timestamp, int fuelLevel, double odometer, double latitude, double longitude) {
+        vehicleIds[size] = vehicleId;
+        recordedAt[size] = timestamp;
+        fuelLevels[size] = fuelLevel;
+        odometers[size] = odometer;
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        size++;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.logistics.fleetservice.telemetry;
+
+import com.logistics.fleetservice.dto.TelemetryAck;
+
+// Parses "vehicleId,timestampMs,fuelLevel,odometerKm,latitude,longitude" lines straight from the request bytes
+// into the ring buffer, without creating a String per line or per field
+public final class TelemetryParser {
+
+    private final byte[] data;
+    private int position;
+    private boolean malformed;
+
+    private TelemetryParser(byte[] data) {
+        this.data = data;
+    }
+
+    // A full ring rejects the rest of the body
+    public static TelemetryAck parseInto(byte[] body, TelemetryRingBuffer ring) {
+        TelemetryParser parser = new TelemetryParser(body);
+        long accepted = 0;
+        long malformed = 0;
+        long shed = 0;
+        boolean full = false;
+
+        while (parser.position < body.length) {
+            if (parser.skipBlankLine()) {
+                continue;
+            }
+            parser.malformed = false;
+            long vehicleId = parser.nextLong();
+            long timestamp = parser.nextLong();
+            int fuelLevel = (int) parser.nextLong();
+            double odometer = parser.nextDecimal();
+            double latitude = parser.nextDecimal();
+            double longitude = parser.nextDecimal();
+            parser.skipToNextLine();
+
+            if (parser.malformed) {
+                malformed++;
+            } else if (full) {
+                shed++;
+            } else if (ring.offer(vehicleId, timestamp, fuelLevel, odometer, latitude, longitude)) {
+                accepted++;
+            } else {
+                full = true;
+                shed++;
+            }
+        }
+        return new TelemetryAck(accepted, malformed, shed);
+    }
+
+    private boolean skipBlankLine() {
+        byte b = data[position];
+        if (b == '\n' || b == '\r') {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private long nextLong() {
+        boolean negative = consume('-');
+        long value = 0;
+        int digits = 0;
+        while (position < data.length && isDigit(data[position])) {
+            value = value * 10 + (data[position++] - '0');
+            digits++;
+        }
+        endField(digits);
+        return negative ? -value : value;
+    }
+
+    private double nextDecimal() {
+        boolean negative = consume('-');
+        long whole = 0;
+        int digits = 0;
+        while (position < data.length && isDigit(data[position])) {
+            whole = whole * 10 + (data[position++] - '0');
+            digits++;
+        }
+        double value = whole;
+        if (consume('.')) {
+            long fraction = 0;
+            long scale = 1;
+            while (position < data.length && isDigit(data[position])) {
+                if (scale < 1_000_000_000_000L) {
+                    fraction = fraction * 10 + (data[position] - '0');
+                    scale *= 10;
+                }
+                position++;
+                digits++;
+            }
+            value += (double) fraction / scale;
+        }
+        endField(digits);
+        return negative ? -value : value;
+    }
+
+    private void endField(int digits) {
+        if (digits == 0) {
+            malformed = true;
+        }
+        if (position < data.length && data[position] == ',') {
+            position++;
+        }
+    }
+
+    private void skipToNextLine() {
+        while (position < data.length && data[position] != '\n') {
+            byte b = data[position++];
+            if (b != '\r' && b != ' ') {
+                malformed = true;
+            }
+        }
+        position++;
+    }
+
+    private boolean consume(char expected) {
+        if (position < data.length && data[position] == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
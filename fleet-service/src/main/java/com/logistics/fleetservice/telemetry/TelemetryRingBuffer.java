@@ -0,0 +1,84 @@
+package com.logistics.fleetservice.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size multi-producer / single-consumer ring of telemetry samples stored in parallel primitive arrays.
+// Producers claim a sequence by CAS, fill the slot, then publish it; the writer thread drains published slots in order.
+public class TelemetryRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+
+    private final long[] vehicleIds;
+    private final long[] recordedAt;
+    private final int[] fuelLevels;
+    private final double[] odometers;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    public TelemetryRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.vehicleIds = new long[capacity];
+        this.recordedAt = new long[capacity];
+        this.fuelLevels = new int[capacity];
+        this.odometers = new double[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long backlog() {
+        return claimed.get() - consumed;
+    }
+
+    // Returns false when the ring is full, so callers can push back instead of growing memory
+    public boolean offer(long vehicleId, long timestamp, int fuelLevel, double odometer, double latitude, double longitude) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        vehicleIds[slot] = vehicleId;
+        recordedAt[slot] = timestamp;
+        fuelLevels[slot] = fuelLevel;
+        odometers[slot] = odometer;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        published.set(slot, sequence);
+        return true;
+    }
+
+    // Single consumer only. Copies up to max published samples into the batch, stopping at the first gap.
+    public int drainTo(TelemetryBatch batch, int max) {
+        long next = consumed;
+        int drained = 0;
+        while (drained < max && batch.size < batch.capacity()) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next) {
+                break;
+            }
+            batch.add(vehicleIds[slot], recordedAt[slot], fuelLevels[slot], odometers[slot], latitudes[slot], longitudes[slot]);
+            next++;
+            drained++;
+        }
+        consumed = next;
+        return drained;
+    }
+}
@@ -0,0 +1,258 @@
+package com.logistics.fleetservice.telemetry;
+
+import com.logistics.fleetservice.dto.TelemetryAck;
+import com.logistics.fleetservice.dto.TelemetryStats;
+import com.logistics.fleetservice.service.FleetVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Drains the telemetry ring on one thread and writes each flush as a single transaction: raw samples,
+// additive 1 min / 1 h rollups, and one time-guarded fuel-level UPDATE per vehicle seen in the flush
+@Component
+public class TelemetryWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryWriter.class);
+
+    private static final long[] ROLLUP_RESOLUTIONS_MS = {60_000L, 3_600_000L};
+
+    private static final String INSERT_SAMPLE = "INSERT INTO t_vehicle_telemetry"
+            + " (vehicle_id, recorded_at, fuel_level, odometer_km, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ROLLUP = "INSERT INTO t_vehicle_telemetry_rollup AS r"
+            + " (vehicle_id, resolution_ms, bucket_start, samples, fuel_min, fuel_max, fuel_sum, odometer_max,"
+            + " last_recorded_at, last_fuel_level, last_latitude, last_longitude)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT (vehicle_id, resolution_ms, bucket_start) DO UPDATE SET"
+            + " samples = r.samples + EXCLUDED.samples,"
+            + " fuel_min = LEAST(r.fuel_min, EXCLUDED.fuel_min),"
+            + " fuel_max = GREATEST(r.fuel_max, EXCLUDED.fuel_max),"
+            + " fuel_sum = r.fuel_sum + EXCLUDED.fuel_sum,"
+            + " odometer_max = GREATEST(r.odometer_max, EXCLUDED.odometer_max),"
+            + " last_recorded_at = GREATEST(r.last_recorded_at, EXCLUDED.last_recorded_at),"
+            + " last_fuel_level = CASE WHEN EXCLUDED.last_recorded_at >= r.last_recorded_at"
+            + " THEN EXCLUDED.last_fuel_level ELSE r.last_fuel_level END,"
+            + " last_latitude = CASE WHEN EXCLUDED.last_recorded_at >= r.last_recorded_at"
+            + " THEN EXCLUDED.last_latitude ELSE r.last_latitude END,"
+            + " last_longitude = CASE WHEN EXCLUDED.last_recorded_at >= r.last_recorded_at"
+            + " THEN EXCLUDED.last_longitude ELSE r.last_longitude END";
+
+    // Fuel is excluded from the optimistic lock, so these leave version alone and cannot fail a concurrent assignment.
+    // Both are guarded by the sample time; a changed level and an unchanged one are split so only the former
+    // invalidates the vehicle list ETag
+    private static final String UPDATE_FUEL = "UPDATE t_vehicles SET fuel_level = ?, fuel_updated_at = ?"
+            + " WHERE id = ? AND (fuel_updated_at IS NULL OR fuel_updated_at < ?) AND fuel_level IS DISTINCT FROM ?";
+
+    private static final String TOUCH_FUEL = "UPDATE t_vehicles SET fuel_updated_at = ?"
+            + " WHERE id = ? AND (fuel_updated_at IS NULL OR fuel_updated_at < ?) AND fuel_level = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FleetVersion fleetVersion;
+    private final TelemetryRingBuffer ring;
+    private final TelemetryBatch batch;
+    private final long flushIntervalNanos;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public TelemetryWriter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           FleetVersion fleetVersion,
+                           @Value("${fleet.telemetry.ring-capacity:262144}") int ringCapacity,
+                           @Value("${fleet.telemetry.batch-size:5000}") int batchSize,
+                           @Value("${fleet.telemetry.flush-interval-ms:500}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fleetVersion = fleetVersion;
+        this.ring = new TelemetryRingBuffer(ringCapacity);
+        this.batch = new TelemetryBatch(batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    }
+
+    public TelemetryAck ingest(byte[] body) {
+        TelemetryAck ack = TelemetryParser.parseInto(body, ring);
+        accepted.addAndGet(ack.getAccepted());
+        malformed.addAndGet(ack.getMalformed());
+        shed.addAndGet(ack.getShed());
+        return ack;
+    }
+
+    public TelemetryStats getStats() {
+        return new TelemetryStats(accepted.get(), malformed.get(), shed.get(), written.get(), failed.get(),
+                ring.backlog(), ring.capacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "telemetry-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        long batchStarted = System.nanoTime();
+        while (running || ring.backlog() > 0) {
+            if (batch.size() == 0) {
+                batchStarted = System.nanoTime();
+            }
+            int drained = ring.drainTo(batch, batch.capacity());
+
+            boolean full = batch.size() == batch.capacity();
+            boolean due = batch.size() > 0 && System.nanoTime() - batchStarted >= flushIntervalNanos;
+            if (full || due || (!running && batch.size() > 0)) {
+                flush();
+            } else if (drained == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void flush() {
+        int size = batch.size();
+        try {
+            boolean fuelChanged = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                writeSamples(size);
+                writeRollups(size);
+                return writeFuelLevels(size);
+            }));
+            written.addAndGet(size);
+            if (fuelChanged) {
+                fleetVersion.bumpAfterCommit();
+            }
+        } catch (RuntimeException e) {
+            // Telemetry is lossy by design; a failed flush is counted and dropped rather than blocking ingestion
+            failed.addAndGet(size);
+            LOGGER.error("Dropping {} telemetry samples after failed flush: {}", size, e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void writeSamples(int size) {
+        jdbcTemplate.batchUpdate(INSERT_SAMPLE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, batch.vehicleIds[i]);
+                ps.setLong(2, batch.recordedAt[i]);
+                ps.setInt(3, batch.fuelLevels[i]);
+                ps.setDouble(4, batch.odometers[i]);
+                ps.setDouble(5, batch.latitudes[i]);
+                ps.setDouble(6, batch.longitudes[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return size;
+            }
+        });
+    }
+
+    // Rollups are aggregated per flush and merged additively in SQL, so late samples land in the right bucket
+    // and nothing but the current flush is kept in memory
+    private void writeRollups(int size) {
+        Map<RollupKey, Rollup> rollups = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            for (long resolution : ROLLUP_RESOLUTIONS_MS) {
+                long bucketStart = batch.recordedAt[i] - Math.floorMod(batch.recordedAt[i], resolution);
+                rollups.computeIfAbsent(new RollupKey(batch.vehicleIds[i], resolution, bucketStart), key -> new Rollup())
+                        .add(batch, i);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(rollups.size());
+        rollups.forEach((key, rollup) -> rows.add(new Object[]{
+                key.vehicleId, key.resolution, key.bucketStart, rollup.samples, rollup.fuelMin, rollup.fuelMax,
+                rollup.fuelSum, rollup.odometerMax, rollup.lastRecordedAt, rollup.lastFuelLevel,
+                rollup.lastLatitude, rollup.lastLongitude}));
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, rows);
+    }
+
+    // Only the newest sample per vehicle in this flush touches t_vehicles; returns whether any listed fuel level changed
+    private boolean writeFuelLevels(int size) {
+        Map<Long, Integer> latest = new HashMap<>();
+        Map<Long, Long> latestAt = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Long previous = latestAt.get(batch.vehicleIds[i]);
+            if (previous == null || batch.recordedAt[i] >= previous) {
+                latestAt.put(batch.vehicleIds[i], batch.recordedAt[i]);
+                latest.put(batch.vehicleIds[i], batch.fuelLevels[i]);
+            }
+        }
+
+        List<Object[]> updates = new ArrayList<>(latest.size());
+        List<Object[]> touches = new ArrayList<>(latest.size());
+        latest.forEach((vehicleId, fuelLevel) -> {
+            Long recordedAt = latestAt.get(vehicleId);
+            updates.add(new Object[]{fuelLevel, recordedAt, vehicleId, recordedAt, fuelLevel});
+            touches.add(new Object[]{recordedAt, vehicleId, recordedAt, fuelLevel});
+        });
+        boolean changed = false;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_FUEL, updates)) {
+            // SUCCESS_NO_INFO is negative; treat it as a change rather than serve a stale ETag
+            changed |= count != 0;
+        }
+        jdbcTemplate.batchUpdate(TOUCH_FUEL, touches);
+        return changed;
+    }
+
+    private record RollupKey(long vehicleId, long resolution, long bucketStart) {
+    }
+
+    private static final class Rollup {
+        private long samples;
+        private int fuelMin = Integer.MAX_VALUE;
+        private int fuelMax = Integer.MIN_VALUE;
+        private long fuelSum;
+        private double odometerMax;
+        private long lastRecordedAt = Long.MIN_VALUE;
+        private int lastFuelLevel;
+        private double lastLatitude;
+        private double lastLongitude;
+
+        private void add(TelemetryBatch batch, int i) {
+            samples++;
+            fuelMin = Math.min(fuelMin, batch.fuelLevels[i]);
+            fuelMax = Math.max(fuelMax, batch.fuelLevels[i]);
+            fuelSum += batch.fuelLevels[i];
+            odometerMax = Math.max(odometerMax, batch.odometers[i]);
+            if (batch.recordedAt[i] >= lastRecordedAt) {
+                lastRecordedAt = batch.recordedAt[i];
+                lastFuelLevel = batch.fuelLevels[i];
+                lastLatitude = batch.latitudes[i];
+                lastLongitude = batch.longitudes[i];
+            }
+        }
+    }
+}
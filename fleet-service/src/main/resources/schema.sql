@@ -0,0 +1,32 @@
+-- Telemetry is written with plain JDBC batches, so its tables live here rather than in JPA entities.
+-- Timestamps are epoch milliseconds as sent by the vehicles.
+
+CREATE TABLE IF NOT EXISTS t_vehicle_telemetry (
+    vehicle_id   BIGINT           NOT NULL,
+    recorded_at  BIGINT           NOT NULL,
+    fuel_level   INTEGER          NOT NULL,
+    odometer_km  DOUBLE PRECISION NOT NULL,
+    latitude     DOUBLE PRECISION NOT NULL,
+    longitude    DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_vehicle_telemetry_vehicle_time ON t_vehicle_telemetry (vehicle_id, recorded_at);
+
+CREATE TABLE IF NOT EXISTS t_vehicle_telemetry_rollup (
+    vehicle_id       BIGINT           NOT NULL,
+    resolution_ms    BIGINT           NOT NULL,
+    bucket_start     BIGINT           NOT NULL,
+    samples          BIGINT           NOT NULL,
+    fuel_min         INTEGER          NOT NULL,
+    fuel_max         INTEGER          NOT NULL,
+    fuel_sum         BIGINT           NOT NULL,
+    odometer_max     DOUBLE PRECISION NOT NULL,
+    last_recorded_at BIGINT           NOT NULL,
+    last_fuel_level  INTEGER          NOT NULL,
+    last_latitude    DOUBLE PRECISION NOT NULL,
+    last_longitude   DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (vehicle_id, resolution_ms, bucket_start)
+);
+
+-- t_vehicles itself is owned by JPA; on a fresh database Hibernate adds this column instead
+ALTER TABLE IF EXISTS t_vehicles ADD COLUMN IF NOT EXISTS fuel_updated_at BIGINT;
@@ -0,0 +1,90 @@
+package com.logistics.fleetservice.assignment;
+
+import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.dto.AssignmentPlan;
+import com.logistics.fleetservice.dto.PendingShipment;
+import com.logistics.fleetservice.dto.VehicleLoad;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 100k shipments from 50 origins onto 10k vehicles; prints plan time and fill ratio. Run with ./gradlew benchmark
+@Tag("benchmark")
+class AssignmentEngineBenchmark {
+
+    private static final int SHIPMENTS = 100_000;
+    private static final int VEHICLES = 10_000;
+    private static final int ORIGINS = 50;
+    private static final double[] CAPACITIES_KG = {1_500, 3_500, 7_500, 12_000, 18_000, 24_000};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private final AssignmentEngine engine = new AssignmentEngine(0);
+
+    @AfterEach
+    void shutdown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void planFullFleet() {
+        Random random = new Random(42);
+        List<Vehicle> fleet = new ArrayList<>(VEHICLES);
+        double totalCapacity = 0;
+        for (long id = 1; id <= VEHICLES; id++) {
+            double capacity = CAPACITIES_KG[random.nextInt(CAPACITIES_KG.length)];
+            fleet.add(Vehicle.builder().id(id).licensePlate("B-" + id).vehicleType("TRUCK").capacityKg(capacity)
+                    .fuelLevel(100).build());
+            totalCapacity += capacity;
+        }
+        List<PendingShipment> shipments = new ArrayList<>(SHIPMENTS);
+        double totalWeight = 0;
+        for (int i = 0; i < SHIPMENTS; i++) {
+            // Mostly parcels with a long tail of pallets, skewed towards a few busy origins
+            double weight = Math.min(1_400, 5 + Math.abs(random.nextGaussian()) * 300);
+            int origin = (int) Math.min(ORIGINS - 1, Math.abs(random.nextGaussian()) * ORIGINS / 3);
+            shipments.add(new PendingShipment("TRK-" + i, weight, "CITY-" + origin, "CITY-" + random.nextInt(ORIGINS)));
+            totalWeight += weight;
+        }
+
+        AssignmentPlan plan = null;
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            plan = engine.plan(shipments, fleet);
+        }
+        long[] elapsedNanos = new long[MEASURED_RUNS];
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long start = System.nanoTime();
+            plan = engine.plan(shipments, fleet);
+            elapsedNanos[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(elapsedNanos);
+
+        int assigned = 0;
+        Set<String> seen = new HashSet<>();
+        for (VehicleLoad load : plan.getLoads()) {
+            assertThat(load.getLoadKg()).isLessThanOrEqualTo(load.getCapacityKg() + 1e-6);
+            for (String trackingId : load.getTrackingIds()) {
+                assertThat(seen.add(trackingId)).as("%s planned twice", trackingId).isTrue();
+                assigned++;
+            }
+        }
+        assertThat(assigned + plan.getUnassigned().size()).isEqualTo(SHIPMENTS);
+
+        System.out.printf("assignment plan: %,d shipments (%,.0f kg) x %,d vehicles (%,.0f kg), %d origins%n",
+                SHIPMENTS, totalWeight, VEHICLES, totalCapacity, ORIGINS);
+        System.out.printf("  time: min %d ms, median %d ms, max %d ms over %d runs (%d cores)%n",
+                elapsedNanos[0] / 1_000_000, elapsedNanos[MEASURED_RUNS / 2] / 1_000_000,
+                elapsedNanos[MEASURED_RUNS - 1] / 1_000_000, MEASURED_RUNS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  fill ratio %.4f across %,d vehicles used, %,d assigned, %,d unassigned%n",
+                plan.getFillRatio(), plan.getLoads().size(), assigned, plan.getUnassigned().size());
+    }
+}
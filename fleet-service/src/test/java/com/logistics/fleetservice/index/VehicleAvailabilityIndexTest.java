@@ -0,0 +1,62 @@
+package com.logistics.fleetservice.index;
+
+import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VehicleAvailabilityIndexTest {
+
+    private static final long HOLD_MS = 60_000;
+
+    private final VehicleRepository repository = mock(VehicleRepository.class);
+    private final VehicleAvailabilityIndex index = new VehicleAvailabilityIndex(repository);
+
+    @Test
+    void resyncIgnoresSnapshotOlderThanCommittedAssignment() {
+        Vehicle snapshot = vehicle(1L, 1000.0, true, 3L);
+        index.upsert(snapshot);
+
+        // Committed by a consumer after resync read its snapshot
+        index.markInUseAfterCommit(List.of(vehicle(1L, 1000.0, false, 4L)));
+        when(repository.findAll()).thenReturn(List.of(snapshot));
+        index.resync();
+
+        assertThat(index.reserve("VAN", 500.0, HOLD_MS)).isEmpty();
+    }
+
+    @Test
+    void resyncAppliesNewerSnapshot() {
+        index.upsert(vehicle(1L, 1000.0, false, 4L));
+
+        when(repository.findAll()).thenReturn(List.of(vehicle(1L, 1000.0, true, 5L)));
+        index.resync();
+
+        assertThat(index.reserve("VAN", 500.0, HOLD_MS)).isPresent();
+    }
+
+    @Test
+    void holdSurvivesUpsertThatChangesCapacity() {
+        index.upsert(vehicle(1L, 1000.0, true, 1L));
+        Optional<VehicleSlot> held = index.reserve("VAN", 500.0, HOLD_MS);
+        assertThat(held).isPresent();
+        long holdUntil = held.get().getHoldUntil();
+
+        index.upsert(vehicle(1L, 2000.0, true, 2L));
+
+        assertThat(index.reserve("VAN", 1500.0, HOLD_MS)).as("still held after the reshape").isEmpty();
+        assertThat(index.release(1L, holdUntil)).isTrue();
+        assertThat(index.reserve("VAN", 1500.0, HOLD_MS)).isPresent();
+    }
+
+    private static Vehicle vehicle(long id, double capacityKg, boolean available, long version) {
+        return Vehicle.builder().id(id).licensePlate("B-" + id).vehicleType("VAN").capacityKg(capacityKg)
+                .fuelLevel(100).isAvailable(available).version(version).build();
+    }
+}
@@ -0,0 +1,236 @@
+package com.logistics.fleetservice.rabbitmq.consumer;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.contract.amqp.EventMessageConverter;
+import com.logistics.contract.metrics.DispatchLagMetrics;
+import com.logistics.contract.wire.EventCodec;
+import com.logistics.contract.wire.WireFormat;
+import com.logistics.fleetservice.domain.Vehicle;
+import com.logistics.fleetservice.index.VehicleAvailabilityIndex;
+import com.logistics.fleetservice.rabbitmq.config.RabbitMqConfig;
+import com.logistics.fleetservice.repository.VehicleRepository;
+import com.logistics.fleetservice.service.FleetVersion;
+import com.logistics.fleetservice.service.StripedExecutor;
+import com.logistics.fleetservice.service.VehicleAvailabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class FleetStripedConsumerTest {
+
+    private static final int VEHICLES = 20;
+    private static final int EVENTS_PER_VEHICLE = 10;
+
+    private final EventMessageConverter converter = new EventMessageConverter(WireFormat.BINARY);
+    private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+    private final ShipmentDeadLetters deadLetters = new ShipmentDeadLetters(amqpTemplate);
+    private final List<StripedExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executors.forEach(StripedExecutor::shutdown);
+    }
+
+    // Two listener containers receive interleaved events for the same vehicles at the same time; the lanes keep
+    // each container in order per vehicle and the version check plus retry settles the race between containers
+    @Test
+    void concurrentEventsAssignEachVehicleOnce() throws Exception {
+        VersionedVehicleStore store = new VersionedVehicleStore(VEHICLES);
+        FleetStripedConsumer first = consumer(store.repository, 5);
+        FleetStripedConsumer second = consumer(store.repository, 5);
+
+        List<Message> batch = new ArrayList<>();
+        for (int round = 0; round < EVENTS_PER_VEHICLE; round++) {
+            for (long vehicleId = 1; vehicleId <= VEHICLES; vehicleId++) {
+                batch.add(message(event("TRK-" + vehicleId + "-" + round, vehicleId)));
+            }
+        }
+
+        ExecutorService containers = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        for (FleetStripedConsumer consumer : List.of(first, second)) {
+            runs.add(containers.submit(() -> {
+                start.await();
+                consumer.consume(batch);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> run : runs) {
+            run.get(30, TimeUnit.SECONDS);
+        }
+        containers.shutdown();
+
+        for (long vehicleId = 1; vehicleId <= VEHICLES; vehicleId++) {
+            assertThat(store.assignments.get(vehicleId)).as("assignments of vehicle %d", vehicleId).hasValue(1);
+            assertThat(store.rows.get(vehicleId).isAvailable()).isFalse();
+        }
+        verify(amqpTemplate, never()).convertAndSend(anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void eventStillConflictingAfterRetriesIsDeadLettered() {
+        VersionedVehicleStore store = new VersionedVehicleStore(1);
+        store.alwaysConflict = true;
+        FleetStripedConsumer consumer = consumer(store.repository, 3);
+
+        consumer.consume(List.of(message(event("TRK-LOST", 1L))));
+
+        assertThat(store.assignments.get(1L)).hasValue(0);
+        verify(amqpTemplate, times(1)).convertAndSend(eq(RabbitMqConfig.DEAD_LETTER_QUEUE),
+                any(ShipmentEvent.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void unreadableMessageIsDeadLetteredAlone() {
+        VersionedVehicleStore store = new VersionedVehicleStore(1);
+        FleetStripedConsumer consumer = consumer(store.repository, 3);
+        Message garbage = new Message(new byte[]{1, 2, 3}, new MessageProperties());
+        garbage.getMessageProperties().setContentType(EventCodec.CONTENT_TYPE);
+
+        consumer.consume(List.of(garbage, message(event("TRK-OK", 1L))));
+
+        assertThat(store.assignments.get(1L)).hasValue(1);
+        verify(amqpTemplate).send(RabbitMqConfig.DEAD_LETTER_QUEUE, garbage);
+    }
+
+    // A database outage is not the events' fault: the batch is rejected for redelivery, nothing is dead-lettered
+    @Test
+    void transientDatabaseFailureRejectsTheBatch() {
+        for (RuntimeException outage : List.of(new CannotCreateTransactionException("pool exhausted"),
+                new DataAccessResourceFailureException("connection lost"), new QueryTimeoutException("timed out"))) {
+            VersionedVehicleStore store = new VersionedVehicleStore(2);
+            store.failure = outage;
+            FleetStripedConsumer consumer = consumer(store.repository, 3);
+
+            assertThatThrownBy(() -> consumer.consume(List.of(message(event("TRK-A", 1L)), message(event("TRK-B", 2L)))))
+                    .isSameAs(outage);
+        }
+        verify(amqpTemplate, never()).convertAndSend(anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void nonTransientFailureIsDeadLettered() {
+        VersionedVehicleStore store = new VersionedVehicleStore(1);
+        store.failure = new DataIntegrityViolationException("bad row");
+        FleetStripedConsumer consumer = consumer(store.repository, 3);
+
+        consumer.consume(List.of(message(event("TRK-BAD", 1L))));
+
+        verify(amqpTemplate, times(1)).convertAndSend(eq(RabbitMqConfig.DEAD_LETTER_QUEUE),
+                any(ShipmentEvent.class), any(MessagePostProcessor.class));
+    }
+
+    private FleetStripedConsumer consumer(VehicleRepository repository, int maxAttempts) {
+        StripedExecutor executor = new StripedExecutor(4);
+        executors.add(executor);
+        VehicleAvailabilityService service = new VehicleAvailabilityService(repository,
+                new VehicleAvailabilityIndex(repository), new FleetVersion());
+        FleetStripedConsumer consumer = new FleetStripedConsumer(service, executor,
+                new DispatchLagMetrics(new SimpleMeterRegistry(), "fleet"), new ShipmentBatchDecoder(converter, deadLetters),
+                deadLetters);
+        ReflectionTestUtils.setField(consumer, "maxAttempts", maxAttempts);
+        return consumer;
+    }
+
+    private Message message(ShipmentEvent event) {
+        return converter.toMessage(event, new MessageProperties());
+    }
+
+    private static ShipmentEvent event(String trackingId, long vehicleId) {
+        ShipmentEvent event = new ShipmentEvent();
+        event.setTrackingId(trackingId);
+        event.setStatus("DISPATCHED");
+        event.setVehicleId(vehicleId);
+        return event;
+    }
+
+    // Stands in for t_vehicles: reads hand out detached copies, and a write of a stale version fails the
+    // way Hibernate's optimistic lock does
+    private static final class VersionedVehicleStore {
+
+        private final Map<Long, Vehicle> rows = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicInteger> assignments = new ConcurrentHashMap<>();
+        private final VehicleRepository repository = mock(VehicleRepository.class);
+        private volatile boolean alwaysConflict;
+        private volatile RuntimeException failure;
+
+        private VersionedVehicleStore(int vehicles) {
+            for (long id = 1; id <= vehicles; id++) {
+                rows.put(id, Vehicle.builder().id(id).licensePlate("B-" + id).vehicleType("VAN")
+                        .capacityKg(1000.0).fuelLevel(100).version(0L).build());
+                assignments.put(id, new AtomicInteger());
+            }
+            doAnswer(invocation -> read(invocation.getArgument(0))).when(repository).findAllById(any());
+            doAnswer(invocation -> write(invocation.getArgument(0))).when(repository).saveAll(any());
+        }
+
+        private synchronized List<Vehicle> read(Iterable<Long> ids) {
+            if (failure != null) {
+                throw failure;
+            }
+            List<Vehicle> copies = new ArrayList<>();
+            for (Long id : ids) {
+                Vehicle row = rows.get(id);
+                if (row != null) {
+                    copies.add(Vehicle.builder().id(row.getId()).licensePlate(row.getLicensePlate())
+                            .vehicleType(row.getVehicleType()).capacityKg(row.getCapacityKg())
+                            .fuelLevel(row.getFuelLevel()).isAvailable(row.isAvailable()).version(row.getVersion())
+                            .build());
+                }
+            }
+            return copies;
+        }
+
+        private synchronized List<Vehicle> write(Iterable<Vehicle> vehicles) {
+            List<Vehicle> saved = new ArrayList<>();
+            for (Vehicle vehicle : vehicles) {
+                if (alwaysConflict || !rows.get(vehicle.getId()).getVersion().equals(vehicle.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Vehicle.class, vehicle.getId());
+                }
+            }
+            for (Vehicle vehicle : vehicles) {
+                if (rows.get(vehicle.getId()).isAvailable() && !vehicle.isAvailable()) {
+                    assignments.get(vehicle.getId()).incrementAndGet();
+                }
+                vehicle.setVersion(vehicle.getVersion() + 1);
+                rows.put(vehicle.getId(), vehicle);
+                saved.add(vehicle);
+            }
+            return saved;
+        }
+    }
+}
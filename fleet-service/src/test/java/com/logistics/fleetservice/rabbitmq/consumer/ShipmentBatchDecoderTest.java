@@ -0,0 +1,87 @@
+package com.logistics.fleetservice.rabbitmq.consumer;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.contract.wire.EventCodec;
+import com.logistics.fleetservice.rabbitmq.config.RabbitMqConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ShipmentBatchDecoderTest {
+
+    private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+    private final ShipmentBatchDecoder decoder =
+            new ShipmentBatchDecoder(new RabbitMqConfig().converter(), new ShipmentDeadLetters(amqpTemplate));
+
+    // Exactly what shipping-service's Jackson2JsonMessageConverter published before event-contract existed
+    @Test
+    void decodesJsonFromTheLegacyShippingProducer() {
+        Message legacy = json("com.logistics.shippingservice.dto.ShipmentEvent", """
+                {"trackingId":"TRK-1","status":"DISPATCHED","message":"Shipment dispatched","vehicleId":7,\
+                "weight":12.5,"origin":"Rotterdam","destination":"Hamburg","licensePlate":"NL-12-345"}""");
+
+        List<ShipmentEvent> events = decoder.decode(List.of(legacy));
+
+        assertThat(events).containsExactly(new ShipmentEvent("TRK-1", "DISPATCHED", "Shipment dispatched", 7L, 12.5,
+                "Rotterdam", "Hamburg", "NL-12-345", 0));
+        verify(amqpTemplate, never()).send(eq(RabbitMqConfig.DEAD_LETTER_QUEUE), any(Message.class));
+    }
+
+    // fleet's own old copy had a quantity and no tracking id; unknown properties are ignored
+    @Test
+    void decodesJsonTypedWithFleetsOldEventClass() {
+        Message legacy = json("com.logistics.fleetservice.rabbitmq.dto.ShipmentEvent",
+                "{\"status\":\"DISPATCHED\",\"message\":\"m\",\"vehicleId\":3,\"quantity\":2}");
+
+        List<ShipmentEvent> events = decoder.decode(List.of(legacy));
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getVehicleId()).isEqualTo(3L);
+            assertThat(event.getTrackingId()).isNull();
+        });
+    }
+
+    @Test
+    void decodesBinaryAndCurrentJsonInTheSameBatch() {
+        ShipmentEvent event = new ShipmentEvent("TRK-2", "DISPATCHED", null, 9L, null, null, null, null, 0);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(EventCodec.CONTENT_TYPE);
+        Message binary = new Message(EventCodec.encode(event), properties);
+        Message current = json(ShipmentEvent.class.getName(), "{\"trackingId\":\"TRK-3\",\"vehicleId\":4}");
+
+        List<ShipmentEvent> events = decoder.decode(List.of(binary, current));
+
+        assertThat(events).extracting(ShipmentEvent::getTrackingId).containsExactly("TRK-2", "TRK-3");
+    }
+
+    // A type outside event-contract is neither loaded nor allowed to fail the rest of the batch
+    @Test
+    void deadLettersJsonWithAnUntrustedTypeId() {
+        Message untrusted = json("com.example.Gadget", "{\"vehicleId\":1}");
+        Message legacy = json("com.logistics.shippingservice.dto.ShipmentEvent", "{\"trackingId\":\"TRK-4\"}");
+
+        List<ShipmentEvent> events = decoder.decode(List.of(untrusted, legacy));
+
+        assertThat(events).extracting(ShipmentEvent::getTrackingId).containsExactly("TRK-4");
+        verify(amqpTemplate).send(eq(RabbitMqConfig.DEAD_LETTER_QUEUE), eq(untrusted));
+    }
+
+    private static Message json(String typeId, String body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setHeader("__TypeId__", typeId);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,317 @@
+package com.logistics.functionservice.catalog;
+
+import com.logistics.functionservice.dto.WaybillEntry;
+import com.logistics.functionservice.dto.WaybillPage;
+import com.logistics.functionservice.pdf.WaybillEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// In-memory index of the waybill directory, ordered by file name and by creation time, so listing is a range
+// walk over a skip list instead of a directory scan. Built by a parallel scan at startup and kept current by
+// the engine (right after each write) and a WatchService (for anything else touching the directory).
+@Component
+@Slf4j
+public class WaybillCatalog {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String NAME_PREFIX = "waybill_";
+    private static final String NAME_SUFFIX = ".pdf";
+    private static final int SCAN_CHUNK = 4096;
+
+    private final Path dir = Paths.get(WaybillEngine.STORAGE_DIR);
+    private final int indexThreads;
+    private final ConcurrentSkipListMap<String, WaybillEntry> byName = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<TimeKey, WaybillEntry> byCreated = new ConcurrentSkipListMap<>();
+    // Writers keep the two maps in step; readers never take it
+    private final Object writeLock = new Object();
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    public WaybillCatalog(@Value("${waybill.catalog.index-threads:0}") int indexThreads) {
+        this.indexThreads = indexThreads > 0 ? indexThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    // The watch is registered before the scan, so a file written mid-scan is picked up by one or the other
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(dir);
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        watcher = new Thread(this::watch, "waybill-catalog-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        long started = System.nanoTime();
+        rescan();
+        log.info("Indexed {} waybills in {} ms", byName.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        watchService.close();
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    // Re-reads one file's attributes; a file that is gone is dropped
+    public void refresh(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            put(new WaybillEntry(name, trackingId(name), attributes.size(), attributes.creationTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            remove(name);
+        } catch (IOException e) {
+            log.warn("Could not index {}", file, e);
+        }
+    }
+
+    /**
+     * One page of waybills. Without a time range they come in file-name order; with from and/or to (epoch millis,
+     * from inclusive, to exclusive) they come oldest first. trackingPrefix narrows either by tracking ID. after
+     * is the next cursor of the previous page.
+     */
+    public WaybillPage page(String trackingPrefix, Long from, Long to, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String prefix = trackingPrefix == null || trackingPrefix.isEmpty() ? null : trackingPrefix;
+        return from != null || to != null
+                ? pageByTime(prefix, from, to, after, size)
+                : pageByName(prefix, after, size);
+    }
+
+    private WaybillPage pageByName(String trackingPrefix, String after, int size) {
+        NavigableMap<String, WaybillEntry> range;
+        if (trackingPrefix == null) {
+            range = after == null ? byName : byName.tailMap(after, false);
+        } else {
+            String low = NAME_PREFIX + trackingPrefix;
+            String high = low + Character.MAX_VALUE;
+            boolean lowInclusive = true;
+            if (after != null && after.compareTo(low) >= 0) {
+                low = after;
+                lowInclusive = false;
+            }
+            if (low.compareTo(high) >= 0) {
+                return new WaybillPage(List.of(), null);
+            }
+            range = byName.subMap(low, lowInclusive, high, false);
+        }
+
+        List<WaybillEntry> items = new ArrayList<>(size);
+        Iterator<WaybillEntry> it = range.values().iterator();
+        while (it.hasNext() && items.size() < size) {
+            items.add(it.next());
+        }
+        String next = it.hasNext() ? items.get(items.size() - 1).getName() : null;
+        return new WaybillPage(items, next);
+    }
+
+    // Walks the time index; a tracking prefix is applied as a filter, so its cost grows with the time range
+    private WaybillPage pageByTime(String trackingPrefix, Long from, Long to, String after, int size) {
+        TimeKey low = new TimeKey(from != null ? from : Long.MIN_VALUE, "");
+        TimeKey high = new TimeKey(to != null ? to : Long.MAX_VALUE, "");
+        boolean lowInclusive = true;
+        if (after != null) {
+            TimeKey cursor = TimeKey.parse(after);
+            if (cursor.compareTo(low) >= 0) {
+                low = cursor;
+                lowInclusive = false;
+            }
+        }
+        if (low.compareTo(high) >= 0) {
+            return new WaybillPage(List.of(), null);
+        }
+
+        List<WaybillEntry> items = new ArrayList<>(size);
+        String next = null;
+        for (WaybillEntry entry : byCreated.subMap(low, lowInclusive, high, false).values()) {
+            if (trackingPrefix != null && (entry.getTrackingId() == null || !entry.getTrackingId().startsWith(trackingPrefix))) {
+                continue;
+            }
+            if (items.size() == size) {
+                next = TimeKey.of(items.get(size - 1)).toCursor();
+                break;
+            }
+            items.add(entry);
+        }
+        return new WaybillPage(items, next);
+    }
+
+    private void put(WaybillEntry entry) {
+        synchronized (writeLock) {
+            WaybillEntry previous = byName.put(entry.getName(), entry);
+            if (previous != null) {
+                byCreated.remove(TimeKey.of(previous));
+            }
+            byCreated.put(TimeKey.of(entry), entry);
+        }
+    }
+
+    private void remove(String name) {
+        synchronized (writeLock) {
+            WaybillEntry previous = byName.remove(name);
+            if (previous != null) {
+                byCreated.remove(TimeKey.of(previous));
+            }
+        }
+    }
+
+    // Streams the directory listing in chunks to a pool that reads attributes in parallel. At most two chunks
+    // per thread are queued, so memory stays flat however many files there are. Entries older than the scan
+    // whose file wasn't seen are swept, which is what makes this usable again after a watch overflow.
+    private void rescan() throws IOException {
+        long scanStarted = System.currentTimeMillis();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(indexThreads, runnable -> new Thread(runnable, "waybill-catalog-index"));
+        Semaphore queued = new Semaphore(indexThreads * 2);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + NAME_SUFFIX)) {
+            List<Path> chunk = new ArrayList<>(SCAN_CHUNK);
+            for (Path file : stream) {
+                chunk.add(file);
+                if (chunk.size() == SCAN_CHUNK) {
+                    submit(pool, queued, chunk, seen);
+                    chunk = new ArrayList<>(SCAN_CHUNK);
+                }
+            }
+            submit(pool, queued, chunk, seen);
+        } finally {
+            pool.shutdown();
+            awaitQuietly(pool);
+        }
+
+        for (WaybillEntry entry : byName.values()) {
+            if (!seen.contains(entry.getName()) && entry.getCreatedAt() < scanStarted) {
+                remove(entry.getName());
+            }
+        }
+    }
+
+    private void submit(ExecutorService pool, Semaphore queued, List<Path> chunk, Set<String> seen) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        queued.acquireUninterruptibly();
+        pool.execute(() -> {
+            try {
+                for (Path file : chunk) {
+                    seen.add(file.getFileName().toString());
+                    refresh(file);
+                }
+            } finally {
+                queued.release();
+            }
+        });
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    log.warn("Waybill watch overflowed, rescanning {}", dir.toAbsolutePath());
+                    try {
+                        rescan();
+                    } catch (IOException e) {
+                        log.error("Waybill rescan failed", e);
+                    }
+                    continue;
+                }
+                Path name = (Path) event.context();
+                if (!name.toString().endsWith(NAME_SUFFIX)) {
+                    continue;       // e.g. the engine's .tmp files
+                }
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    remove(name.toString());
+                } else {
+                    refresh(dir.resolve(name));
+                }
+            }
+            if (!key.reset()) {
+                log.warn("Waybill directory {} is no longer watched", dir.toAbsolutePath());
+                return;
+            }
+        }
+    }
+
+    private static void awaitQuietly(ExecutorService pool) {
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String trackingId(String name) {
+        if (name.startsWith(NAME_PREFIX) && name.endsWith(NAME_SUFFIX)) {
+            return name.substring(NAME_PREFIX.length(), name.length() - NAME_SUFFIX.length());
+        }
+        return null;
+    }
+
+    private record TimeKey(long createdAt, String name) implements Comparable<TimeKey> {
+
+        static TimeKey of(WaybillEntry entry) {
+            return new TimeKey(entry.getCreatedAt(), entry.getName());
+        }
+
+        // Cursor format is "<createdAt>:<name>"
+        static TimeKey parse(String cursor) {
+            int colon = cursor.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                return new TimeKey(Long.parseLong(cursor.substring(0, colon)), cursor.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        String toCursor() {
+            return createdAt + ":" + name;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = Long.compare(createdAt, other.createdAt);
+            return byTime != 0 ? byTime : name.compareTo(other.name);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.logistics.functionservice.config;
+
+import com.logistics.contract.messaging.EventMessagingConverter;
+import com.logistics.functionservice.pdf.WaybillEngine;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+
+@Configuration
+public class MessagingConfig {
+
+    // Picked up by Spring Cloud Stream for messages whose contentType is the binary event type;
+    // JSON shipment events keep going through the default converter
+    @Bean
+    public MessageConverter eventMessagingConverter() {
+        return new EventMessagingConverter();
+    }
+
+    // One listener thread per render worker: every core has a message to work on during a burst, and since each
+    // listener waits for its render, unacked messages stay capped at listeners x prefetch
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer> waybillListenerCustomizer(WaybillEngine waybillEngine) {
+        return (container, destination, group) -> {
+            if (container instanceof SimpleMessageListenerContainer listener) {
+                listener.setConcurrentConsumers(waybillEngine.threads());
+            }
+        };
+    }
+}
@@ -1,24 +1,28 @@
 package com.logistics.functionservice.controller;
 
-import com.logistics.functionservice.dto.ShipmentEvent;
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.functionservice.catalog.WaybillCatalog;
 import com.logistics.functionservice.dto.ShipmentInfo;
+import com.logistics.functionservice.dto.WaybillPage;
 import com.logistics.functionservice.function.WaybillFunction;
+import com.logistics.functionservice.pdf.WaybillCache;
+import com.logistics.functionservice.pdf.WaybillEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.File;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/waybills")
@@ -28,6 +32,12 @@ public class WaybillController {
     @Autowired
     private WaybillFunction waybillFunction;
 
+    @Autowired
+    private WaybillCache waybillCache;
+
+    @Autowired
+    private WaybillCatalog waybillCatalog;
+
     // Generate a Waybill on demand (POST)
     @PostMapping("/generate")
     public ResponseEntity<String> createWaybill(@RequestBody ShipmentEvent event) {
@@ -36,24 +46,25 @@ public class WaybillController {
         return ResponseEntity.ok("Generated: " + filename);
     }
 
-    // List all generated files
+    // Page through generated files from the catalog: by name, or by creation time when from/to (epoch millis) are given
     @GetMapping
-    public List<String> listWaybills() {
-        File folder = new File(WaybillFunction.STORAGE_DIR);
-        File[] files = folder.listFiles((dir, name) -> name.endsWith(".pdf"));
-
-        if (files == null) return List.of("No documents found");
-
-        return Arrays.stream(files)
-                .map(File::getName)
-                .collect(Collectors.toList());
+    public ResponseEntity<WaybillPage> listWaybills(@RequestParam(required = false) String prefix,
+                                                    @RequestParam(required = false) Long from,
+                                                    @RequestParam(required = false) Long to,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(waybillCatalog.page(prefix, from, to, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Download a specific PDF
     @GetMapping("/{filename}")
     public ResponseEntity<Resource> downloadWaybill(@PathVariable String filename) {
         try {
-            Path filePath = Paths.get(WaybillFunction.STORAGE_DIR).resolve(filename).normalize();
+            Path filePath = Paths.get(WaybillEngine.STORAGE_DIR).resolve(filename).normalize();
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists()) {
@@ -69,24 +80,26 @@ public class WaybillController {
         }
     }
 
+    // Served straight from the rendered bytes: an unchanged waybill comes from the cache, a new one is rendered
+    // once and written to disk in the background while it is being sent
     @PostMapping("/generate-download")
     public ResponseEntity<Resource> generateAndDownload(@RequestBody ShipmentEvent event) {
-        String filename = waybillFunction.createPdf(event);
-
-        if (filename == null) {
-            return ResponseEntity.internalServerError().build();
-        }
-
+        byte[] pdf;
         try {
-            Path filePath = Paths.get(WaybillFunction.STORAGE_DIR).resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"waybill-" + event.getTrackingId() + ".pdf\"")
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
+            pdf = waybillCache.render(event).join();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (CompletionException e) {
+            // A render queued behind a full pool fails its future rather than throwing here
+            return e.getCause() instanceof RejectedExecutionException
+                    ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()
+                    : ResponseEntity.internalServerError().build();
         }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(pdf.length)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"waybill-" + event.getTrackingId() + ".pdf\"")
+                .body(new ByteArrayResource(pdf));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.logistics.functionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaybillEntry {
+    private String name;
+    private String trackingId;      // null for files that don't follow the waybill_<id>.pdf naming
+    private long size;
+    private long createdAt;         // Epoch millis
+}
@@ -0,0 +1,15 @@
+package com.logistics.functionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaybillPage {
+    private List<WaybillEntry> items;
+    private String next;            // pass back as "after" for the following page, null on the last page
+}
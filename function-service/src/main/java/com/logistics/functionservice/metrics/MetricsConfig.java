@@ -0,0 +1,17 @@
+package com.logistics.functionservice.metrics;
+
+import com.logistics.contract.metrics.DispatchLagMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String STAGE = "waybill";
+
+    @Bean
+    public DispatchLagMetrics dispatchLagMetrics(MeterRegistry meterRegistry) {
+        return new DispatchLagMetrics(meterRegistry, STAGE);
+    }
+}
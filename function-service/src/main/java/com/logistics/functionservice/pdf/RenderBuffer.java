@@ -0,0 +1,22 @@
+package com.logistics.functionservice.pdf;
+
+import java.io.ByteArrayOutputStream;
+
+// Per-worker output buffer, reset between documents so steady-state rendering doesn't grow a new array for
+// every waybill. A rare oversized document doesn't get to keep its buffer.
+final class RenderBuffer extends ByteArrayOutputStream {
+
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    RenderBuffer() {
+        super(INITIAL_CAPACITY);
+    }
+
+    void recycle() {
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        reset();
+    }
+}
@@ -0,0 +1,141 @@
+package com.logistics.functionservice.pdf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.contract.ShipmentEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Rendered waybills by tracking ID, tagged with a digest of the event fields the PDF shows. A request whose
+// fields match the cached digest is served from memory; anything else is rendered once (concurrent requests for
+// the same content share that render) and written to disk in the background.
+@Component
+public class WaybillCache {
+
+    private final WaybillEngine engine;
+    private final Cache<String, CachedWaybill> cache;
+    private final ConcurrentMap<String, CompletableFuture<CachedWaybill>> inFlight = new ConcurrentHashMap<>();
+
+    public WaybillCache(WaybillEngine engine,
+                        @Value("${waybill.cache.max-bytes:67108864}") long maxBytes) {
+        this.engine = engine;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, CachedWaybill>weigher((trackingId, waybill) -> waybill.pdf().length)
+                .build();
+    }
+
+    // The PDF for exactly this event; it may still be on its way to disk
+    public CompletableFuture<byte[]> render(ShipmentEvent event) {
+        return lookup(event).thenApply(CachedWaybill::pdf);
+    }
+
+    // Completes with the file name once the PDF for this event is on disk
+    public CompletableFuture<String> store(ShipmentEvent event) {
+        return lookup(event).thenCompose(waybill -> waybill.persisted().thenApply(done -> waybill.fileName()));
+    }
+
+    private CompletableFuture<CachedWaybill> lookup(ShipmentEvent event) {
+        String contentKey = contentKey(event);
+        CachedWaybill cached = cached(event.getTrackingId(), contentKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<CachedWaybill> flight = new CompletableFuture<>();
+        CompletableFuture<CachedWaybill> existing = inFlight.putIfAbsent(contentKey, flight);
+        if (existing != null) {
+            return existing;
+        }
+        // A render for this key may have finished between the cache check and claiming the flight
+        cached = cached(event.getTrackingId(), contentKey);
+        if (cached != null) {
+            complete(contentKey, flight, cached, null);
+            return flight;
+        }
+        try {
+            engine.render(event).whenComplete((pdf, error) -> {
+                if (error != null) {
+                    complete(contentKey, flight, null, error);
+                    return;
+                }
+                try {
+                    complete(contentKey, flight, publish(event, contentKey, pdf), null);
+                } catch (RuntimeException e) {
+                    complete(contentKey, flight, null, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            complete(contentKey, flight, null, e);
+        }
+        return flight;
+    }
+
+    private CachedWaybill cached(String trackingId, String contentKey) {
+        CachedWaybill cached = trackingId != null ? cache.getIfPresent(trackingId) : null;
+        return cached != null && cached.contentKey().equals(contentKey) ? cached : null;
+    }
+
+    // Cache first, then let go of the flight, so a request arriving in between finds one or the other
+    private CachedWaybill publish(ShipmentEvent event, String contentKey, byte[] pdf) {
+        String fileName = WaybillEngine.fileName(event.getTrackingId());
+        CompletableFuture<Void> persisted = engine.persist(fileName, pdf);
+        CachedWaybill waybill = new CachedWaybill(contentKey, fileName, pdf, persisted);
+        if (event.getTrackingId() != null) {
+            cache.put(event.getTrackingId(), waybill);
+            // A copy that never made it to disk must not keep answering store() with the same failure
+            persisted.exceptionally(error -> {
+                cache.asMap().remove(event.getTrackingId(), waybill);
+                return null;
+            });
+        }
+        return waybill;
+    }
+
+    private void complete(String contentKey, CompletableFuture<CachedWaybill> flight, CachedWaybill waybill, Throwable error) {
+        inFlight.remove(contentKey, flight);
+        if (error != null) {
+            flight.completeExceptionally(error);
+        } else {
+            flight.complete(waybill);
+        }
+    }
+
+    // Tracking ID plus a digest of everything the layout prints except the render date
+    static String contentKey(ShipmentEvent event) {
+        MessageDigest digest = sha256();
+        update(digest, Integer.toString(WaybillLayout.VERSION));
+        update(digest, event.getTrackingId());
+        update(digest, event.getOrigin());
+        update(digest, event.getDestination());
+        update(digest, String.valueOf(event.getWeight()));
+        update(digest, event.getLicensePlate());
+        return event.getTrackingId() + ":" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);     // field separator, so "ab"+"c" and "a"+"bc" differ
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every JVM", e);
+        }
+    }
+
+    private record CachedWaybill(String contentKey, String fileName, byte[] pdf, CompletableFuture<Void> persisted) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.logistics.functionservice.pdf;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.functionservice.catalog.WaybillCatalog;
+import com.lowagie.text.DocumentException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Renders waybills on a fixed pool sized to the cores and writes them out on a separate writer thread. At most
+// threads + queue-capacity renders are pending at once; past that, callers wait for a slot, which holds the
+// RabbitMQ listener (and with it the prefetch) back instead of queueing a burst in memory.
+@Component
+@Slf4j
+public class WaybillEngine {
+
+    public static final String STORAGE_DIR = "generated-waybills";
+
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private final Path storageDir = Paths.get(STORAGE_DIR);
+    private final ThreadPoolExecutor workers;
+    private final ThreadPoolExecutor writer;
+    private final Semaphore slots;
+    private final long acquireTimeoutMs;
+    private final WaybillCatalog catalog;
+
+    public WaybillEngine(WaybillCatalog catalog,
+                         @Value("${waybill.render.threads:0}") int threads,
+                         @Value("${waybill.render.queue-capacity:0}") int queueCapacity,
+                         @Value("${waybill.render.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        int count = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int queued = queueCapacity > 0 ? queueCapacity : count * 4;
+        AtomicInteger ids = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(count, count, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "waybill-render-" + ids.getAndIncrement()));
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queued),
+                runnable -> new Thread(runnable, "waybill-writer"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.slots = new Semaphore(count + queued);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.catalog = catalog;
+        try {
+            Files.createDirectories(storageDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create waybill directory " + storageDir.toAbsolutePath(), e);
+        }
+    }
+
+    public int threads() {
+        return workers.getCorePoolSize();
+    }
+
+    public Path storageDir() {
+        return storageDir;
+    }
+
+    public static String fileName(String trackingId) {
+        return "waybill_" + trackingId + ".pdf";
+    }
+
+    // Completes with the finished PDF. Throws RejectedExecutionException if no slot frees up in time.
+    public CompletableFuture<byte[]> render(ShipmentEvent event) {
+        acquireSlot();
+        try {
+            return CompletableFuture.supplyAsync(() -> renderBytes(event), workers)
+                    .whenComplete((pdf, error) -> slots.release());
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    // Writes an already rendered PDF on the writer thread. When writes fall behind, the caller does the write
+    // itself rather than letting rendered documents pile up in the writer's queue.
+    public CompletableFuture<Void> persist(String fileName, byte[] pdf) {
+        return CompletableFuture.runAsync(() -> write(fileName, pdf), writer);
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!slots.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Waybill renderer saturated for " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a render slot", e);
+        }
+    }
+
+    // Renders into the worker's reusable buffer; the only per-document copy is the exact-size result
+    private static byte[] renderBytes(ShipmentEvent event) {
+        RenderBuffer buffer = BUFFERS.get();
+        try {
+            WaybillLayout.forCurrentThread().render(event, buffer);
+            return buffer.toByteArray();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Could not render waybill for " + event.getTrackingId(), e);
+        } finally {
+            buffer.recycle();
+        }
+    }
+
+    // The temp file + rename means a reader never sees a half-written PDF. Each write gets its own temp file,
+    // so two writes of the same waybill (the writer thread and a caller-runs write) never share one
+    private void write(String fileName, byte[] pdf) {
+        Path target = storageDir.resolve(fileName);
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(storageDir, fileName + ".", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(pdf);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Listable as soon as it's written, without waiting for the directory watch to notice
+            catalog.refresh(target);
+            log.info("Waybill Generated: {}", target.toAbsolutePath());
+        } catch (IOException e) {
+            if (tmp != null) {
+                deleteQuietly(tmp);
+            }
+            throw new UncheckedIOException("Could not store " + fileName, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not remove {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        writer.shutdown();
+    }
+}
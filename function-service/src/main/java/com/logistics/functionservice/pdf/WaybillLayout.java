@@ -0,0 +1,75 @@
+package com.logistics.functionservice.pdf;
+
+import com.logistics.contract.ShipmentEvent;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.util.Date;
+
+// The waybill design. Fonts are resolved once per JVM; the fixed paragraphs are built once per render thread
+// (OpenPDF elements aren't documented as safe to share between documents being written concurrently), so a
+// document only allocates its per-shipment lines.
+final class WaybillLayout {
+
+    // Part of every waybill's content key: bump it when the design changes so cached documents are re-rendered
+    static final int VERSION = 1;
+
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24, new Color(0, 51, 102));
+    private static final Font TRACKING_FONT = FontFactory.getFont(FontFactory.COURIER_BOLD, 16);
+    private static final Font CONTENT_FONT = FontFactory.getFont(FontFactory.COURIER, 14);
+
+    private static final ThreadLocal<WaybillLayout> PER_THREAD = ThreadLocal.withInitial(WaybillLayout::new);
+
+    private final Paragraph title;
+    private final Paragraph blankLine;
+    private final Paragraph systemName;
+    private final Paragraph separator;
+
+    private WaybillLayout() {
+        title = new Paragraph("OFFICIAL WAYBILL", TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        blankLine = new Paragraph("\n");
+        systemName = new Paragraph("Logistics App - Shipping System");
+        separator = new Paragraph("\n--------------------------------------------------\n");
+    }
+
+    static WaybillLayout forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    // Writes the complete PDF to out; out is left open for the caller
+    void render(ShipmentEvent event, OutputStream out) throws DocumentException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        try {
+            document.add(title);
+            document.add(blankLine);
+            document.add(systemName);
+            document.add(new Paragraph("Date: " + new Date()));
+            document.add(separator);
+
+            String origin = event.getOrigin() != null ? event.getOrigin() : "N/A";
+            String dest = event.getDestination() != null ? event.getDestination() : "N/A";
+
+            document.add(new Paragraph("TRACKING ID:  " + event.getTrackingId(), TRACKING_FONT));
+            document.add(new Paragraph("ORIGIN:       " + origin, CONTENT_FONT));
+            document.add(new Paragraph("DESTINATION:  " + dest, CONTENT_FONT));
+            document.add(new Paragraph("WEIGHT:       " + event.getWeight() + " kg", CONTENT_FONT));
+            document.add(new Paragraph("VEHICLE:      " + event.getLicensePlate(), CONTENT_FONT));
+
+            document.add(separator);
+            document.add(new Paragraph("||| || ||| || |||| ||| || " + event.getTrackingId()));
+        } finally {
+            document.close();
+        }
+    }
+}
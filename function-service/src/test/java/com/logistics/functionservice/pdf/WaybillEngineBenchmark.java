@@ -0,0 +1,194 @@
+package com.logistics.functionservice.pdf;
+
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.functionservice.catalog.WaybillCatalog;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Waybills/sec and bytes allocated per waybill for the original per-call rendering, the cached layout on one
+// thread, and a dispatch burst through WaybillEngine's pool. Run with ./gradlew benchmark
+@Tag("benchmark")
+class WaybillEngineBenchmark {
+
+    private static final int DOCUMENTS = 2_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final int HEAP_SAMPLE_EVERY = 256;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ShipmentEvent[] events = new ShipmentEvent[DOCUMENTS];
+
+    @Test
+    void renderThroughputAndAllocation() throws Exception {
+        for (int i = 0; i < DOCUMENTS; i++) {
+            events[i] = new ShipmentEvent(UUID.randomUUID().toString(), "DISPATCHED", "Shipment dispatched",
+                    1L + i % 500, 10.0 + i % 2000, "Rotterdam", "Warszawa", "NL-12-" + (i % 1000),
+                    System.currentTimeMillis());
+        }
+
+        Result perCall = measure(() -> {
+            for (ShipmentEvent event : events) {
+                assertThat(renderPerCall(event)).isNotEmpty();
+            }
+        }, false);
+
+        RenderBuffer buffer = new RenderBuffer();
+        Result cachedLayout = measure(() -> {
+            for (ShipmentEvent event : events) {
+                WaybillLayout.forCurrentThread().render(event, buffer);
+                assertThat(buffer.toByteArray()).isNotEmpty();
+                buffer.recycle();
+            }
+        }, false);
+
+        Path storageDir = Paths.get(WaybillEngine.STORAGE_DIR);
+        boolean createdStorageDir = !Files.exists(storageDir);
+        WaybillEngine engine = new WaybillEngine(new WaybillCatalog(1), 0, 0, 30_000);
+        // Slots are threads + the default queue capacity of four per thread. A completion is only seen here after
+        // its slot is released, so up to one more render per thread can briefly look pending
+        int bound = engine.threads() * 5 + engine.threads();
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger maxPending = new AtomicInteger();
+        long[] peakHeap = new long[1];
+        try {
+            long heapBefore = usedHeapAfterGc();
+            Result burst = measure(() -> {
+                CompletableFuture<?>[] renders = new CompletableFuture<?>[DOCUMENTS];
+                for (int i = 0; i < DOCUMENTS; i++) {
+                    renders[i] = engine.render(events[i]).whenComplete((pdf, error) -> pending.decrementAndGet());
+                    maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+                    if (i % HEAP_SAMPLE_EVERY == 0) {
+                        peakHeap[0] = Math.max(peakHeap[0], memory.getHeapMemoryUsage().getUsed() - heapBefore);
+                    }
+                }
+                CompletableFuture.allOf(renders).join();
+            }, true);
+
+            System.out.printf("waybill rendering: %,d documents per round, median of %d rounds, %d core(s), %d render threads%n",
+                    DOCUMENTS, ROUNDS, Runtime.getRuntime().availableProcessors(), engine.threads());
+            print("per-call fonts", perCall);
+            print("cached layout", cachedLayout);
+            print("engine burst", burst);
+            System.out.printf("  engine burst: at most %d renders pending (slots + threads %d), peak heap growth %,d KiB%n",
+                    maxPending.get(), bound, peakHeap[0] / 1024);
+
+            assertThat(maxPending.get()).isLessThanOrEqualTo(bound);
+        } finally {
+            engine.shutdown();
+            if (createdStorageDir) {
+                Files.deleteIfExists(storageDir);
+            }
+        }
+    }
+
+    // The rendering WaybillFunction.createPdf did before the engine: fonts looked up and every element built per
+    // call, into a stream allocated per call (the file write itself is left out)
+    private static byte[] renderPerCall(ShipmentEvent event) throws DocumentException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, out);
+        document.open();
+
+        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24, new Color(0, 51, 102));
+        Paragraph title = new Paragraph("OFFICIAL WAYBILL", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+
+        document.add(new Paragraph("\n"));
+        document.add(new Paragraph("Logistics App - Shipping System"));
+        document.add(new Paragraph("Date: " + new Date()));
+        document.add(new Paragraph("\n--------------------------------------------------\n"));
+
+        Font contentFont = FontFactory.getFont(FontFactory.COURIER, 14);
+        document.add(new Paragraph("TRACKING ID:  " + event.getTrackingId(), FontFactory.getFont(FontFactory.COURIER_BOLD, 16)));
+        document.add(new Paragraph("ORIGIN:       " + event.getOrigin(), contentFont));
+        document.add(new Paragraph("DESTINATION:  " + event.getDestination(), contentFont));
+        document.add(new Paragraph("WEIGHT:       " + event.getWeight() + " kg", contentFont));
+        document.add(new Paragraph("VEHICLE:      " + event.getLicensePlate(), contentFont));
+
+        document.add(new Paragraph("\n--------------------------------------------------\n"));
+        document.add(new Paragraph("||| || ||| || |||| ||| || " + event.getTrackingId()));
+        document.close();
+        return out.toByteArray();
+    }
+
+    // Allocation is summed over the calling thread and, for the engine, its render threads
+    private static Result measure(Round round, boolean includeRenderThreads) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long[] threadIds = includeRenderThreads
+                ? Thread.getAllStackTraces().keySet().stream()
+                        .filter(thread -> thread == Thread.currentThread() || thread.getName().startsWith("waybill-render-"))
+                        .mapToLong(Thread::getId)
+                        .toArray()
+                : new long[] {Thread.currentThread().getId()};
+        double[] rates = new double[ROUNDS];
+        double[] allocations = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocatedBefore = allocated(threadIds);
+            long start = System.nanoTime();
+            round.run();
+            long nanos = System.nanoTime() - start;
+            allocations[i] = (allocated(threadIds) - allocatedBefore) / (double) DOCUMENTS;
+            rates[i] = DOCUMENTS * 1e9 / nanos;
+        }
+        return new Result(median(rates), median(allocations));
+    }
+
+    private static long allocated(long[] threadIds) {
+        return Arrays.stream(THREADS.getThreadAllocatedBytes(threadIds)).filter(bytes -> bytes > 0).sum();
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("  %-16s %,10.0f waybills/sec %,10.0f bytes allocated/waybill%n", name,
+                result.perSecond, result.bytesPerDocument);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws Exception;
+    }
+
+    private record Result(double perSecond, double bytesPerDocument) {
+    }
+}
@@ -99,6 +99,11 @@ export class AppComponent implements OnInit {
   private tryParse(str: string): string {
     try {
         const json = JSON.parse(str);
+        if (json.updates) {
+          return json.count === 1
+            ? `Shipment ${json.updates[0].trackingId} is now ${json.updates[0].status}`
+            : `${json.count} shipments updated`;
+        }
         return json.status ? `Shipment ${json.trackingId} is now ${json.status}` : str;
     } catch (e) {
         return str;
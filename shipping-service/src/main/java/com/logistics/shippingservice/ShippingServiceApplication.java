@@ -3,9 +3,11 @@ package com.logistics.shippingservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableDiscoveryClient
 @SpringBootApplication
+@EnableScheduling
 public class ShippingServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(ShippingServiceApplication.class, args);
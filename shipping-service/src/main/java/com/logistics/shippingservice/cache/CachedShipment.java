@@ -0,0 +1,29 @@
+package com.logistics.shippingservice.cache;
+
+import com.logistics.shippingservice.entity.Shipment;
+
+import java.util.UUID;
+
+// Immutable copy of a committed shipment row. The cache never holds the JPA entity itself, so a caller
+// mutating what it got back, or a later persistence context touching the entity, cannot change a cached value
+public record CachedShipment(Long id,
+                             UUID trackingId,
+                             String status,
+                             Long vehicleId,
+                             String origin,
+                             String destination,
+                             Double weight,
+                             String licensePlate,
+                             Integer packageCount) {
+
+    public static CachedShipment of(Shipment shipment) {
+        return new CachedShipment(shipment.getId(), shipment.getTrackingId(), shipment.getStatus(),
+                shipment.getVehicleId(), shipment.getOrigin(), shipment.getDestination(), shipment.getWeight(),
+                shipment.getLicensePlate(), shipment.getPackageCount());
+    }
+
+    // A fresh, detached Shipment per read
+    public Shipment toShipment() {
+        return new Shipment(id, trackingId, status, vehicleId, origin, destination, weight, licensePlate, packageCount);
+    }
+}
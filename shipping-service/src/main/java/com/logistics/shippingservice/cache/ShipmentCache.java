@@ -0,0 +1,60 @@
+package com.logistics.shippingservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.logistics.shippingservice.dto.CacheMetrics;
+import com.logistics.shippingservice.entity.Shipment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Bounded tracking-ID -> shipment cache in front of ShipmentRepository.findByTrackingId. Entries are immutable
+// CachedShipment copies; every read hands out its own detached Shipment
+@Component
+public class ShipmentCache {
+
+    private final Cache<UUID, CachedShipment> cache;
+
+    public ShipmentCache(@Value("${shipment.cache.max-size:100000}") long maxSize,
+                         @Value("${shipment.cache.expire-after-access-minutes:30}") long expireMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // Misses are loaded once per key; unknown tracking IDs are not cached
+    public Optional<Shipment> get(UUID trackingId, Function<UUID, Optional<Shipment>> loader) {
+        return Optional.ofNullable(cache.get(trackingId, key -> loader.apply(key).map(CachedShipment::of).orElse(null)))
+                .map(CachedShipment::toShipment);
+    }
+
+    // Populate only once the surrounding transaction commits, so a rollback never leaves a phantom entry;
+    // the copy is taken at commit, so it holds the row as committed
+    public void putAfterCommit(Shipment shipment) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(shipment.getTrackingId(), CachedShipment.of(shipment));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(shipment.getTrackingId(), CachedShipment.of(shipment));
+            }
+        });
+    }
+
+    public CacheMetrics getMetrics() {
+        CacheStats stats = cache.stats();
+        return new CacheMetrics(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -1,18 +1,27 @@
 package com.logistics.shippingservice.controller;
 
+import com.logistics.shippingservice.cache.ShipmentCache;
+import com.logistics.shippingservice.dto.BatchDispatchResult;
+import com.logistics.shippingservice.dto.CacheMetrics;
+import com.logistics.shippingservice.dto.OutboxLag;
+import com.logistics.shippingservice.dto.ShipmentFilter;
 import com.logistics.shippingservice.entity.Shipment;
-import com.logistics.shippingservice.kafka.AnalyticsProducer;
-import com.logistics.shippingservice.repository.ShipmentRepository; // Import the new file
-import com.logistics.shippingservice.rabbitmq.producer.ShipmentProducer;
-import com.logistics.shippingservice.dto.ShipmentEvent;
+import com.logistics.shippingservice.label.LabelService;
+import com.logistics.shippingservice.label.RenderedLabel;
+import com.logistics.shippingservice.outbox.OutboxRelay;
+import com.logistics.shippingservice.service.ShipmentService;
+import com.logistics.shippingservice.websocket.broadcast.ShipmentBroadcaster;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -20,77 +29,143 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ShipmentController {
 
-    private final ShipmentProducer shipmentProducer;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final ShipmentRepository shipmentRepository;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
-    private final AnalyticsProducer analyticsProducer;
+    private final ShipmentService shipmentService;
+    private final OutboxRelay outboxRelay;
+    private final ShipmentCache shipmentCache;
+    private final ShipmentBroadcaster shipmentBroadcaster;
+    private final LabelService labelService;
 
+    // Keyset page ordered by id; pass the X-Next-After-Id header back as afterId to get the next page. Without
+    // size a page holds DEFAULT_PAGE_SIZE rows, and never more than MAX_PAGE_SIZE: the full table is only
+    // available through /stream
     @GetMapping
-    public List<Shipment> getAllShipments() {
-        return shipmentRepository.findAll();
+    public ResponseEntity<List<Shipment>> getAllShipments(@RequestParam(defaultValue = "0") long afterId,
+                                                          @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                          ShipmentFilter filter) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Shipment> page = shipmentService.findPage(afterId, pageSize, filter);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header("X-Next-After-Id", String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
     }
 
+    // Full export as NDJSON, streamed from a DB cursor with constant memory
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamShipments(@RequestParam(defaultValue = "0") long afterId,
+                                                                 ShipmentFilter filter) {
+        StreamingResponseBody body = out -> shipmentService.streamShipments(afterId, filter, out);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<Shipment> getShipment(@PathVariable String trackingId) {
+        UUID id = parseTrackingId(trackingId);
+        if (id == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.of(shipmentService.findByTrackingId(id));
+    }
+
+    @PatchMapping("/{trackingId}/status")
+    public ResponseEntity<Shipment> updateStatus(@PathVariable String trackingId, @RequestParam String status) {
+        UUID id = parseTrackingId(trackingId);
+        if (id == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<Shipment> updated = shipmentService.updateStatus(id, status);
+        updated.ifPresent(shipment -> shipmentBroadcaster.publish(id.toString(), status));
+        return ResponseEntity.of(updated);
+    }
+
+    @GetMapping("/cache/stats")
+    public CacheMetrics getCacheStats() {
+        return shipmentCache.getMetrics();
+    }
+
+    // Rendered labels are cached with an ETag, so a reprint is answered without touching the DB
     @GetMapping("/label/{trackingId}")
-    public ResponseEntity<byte[]> getLabel(@PathVariable String trackingId) {
-
-        String labelContent = "<html><body>" +
-                "<div style='border: 2px solid black; padding: 20px; width: 300px; font-family: monospace;'>" +
-                "<h1 style='text-align: center;'>LOGISTICS APP</h1>" +
-                "<hr/>" +
-                "<h3>TRACKING: " + trackingId + "</h3>" +
-                "<p><strong>PRIORITY SHIPMENT</strong></p>" +
-                "<p>From: Warehouse A<br/>To: Customer Location</p>" +
-                "<div style='text-align: center; margin-top: 20px;'>" +
-                "<div style='background: black; height: 50px; width: 80%; margin: 0 auto;'></div>" +
-                "<p>" + trackingId + "</p>" +
-                "</div>" +
-                "</div>" +
-                "</body></html>";
-
-        byte[] content = labelContent.getBytes();
+    public ResponseEntity<byte[]> getLabel(@PathVariable String trackingId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        UUID id = parseTrackingId(trackingId);
+        if (id == null) {
+            return ResponseEntity.badRequest().build();
+        }
 
+        RenderedLabel label = labelService.getCached(id);
+        if (label == null) {
+            Optional<Shipment> shipment = shipmentService.findByTrackingId(id);
+            if (shipment.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            label = labelService.render(shipment.get());
+        }
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(label.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(label.getEtag()).build();
+        }
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"label-" + trackingId + ".html\"")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"label-" + id + ".html\"")
+                .eTag(label.getEtag())
                 .contentType(MediaType.TEXT_HTML)
-                .body(content);
+                .body(label.getContent());
+    }
+
+    @PostMapping("/labels/batch")
+    public ResponseEntity<StreamingResponseBody> getLabels(@RequestBody List<String> trackingIds) {
+        List<UUID> ids = new ArrayList<>(trackingIds.size());
+        for (String trackingId : trackingIds) {
+            UUID id = parseTrackingId(trackingId);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return zipResponse("labels.zip", out -> labelService.writeZip(ids, out));
+    }
+
+    @GetMapping("/labels/vehicle/{vehicleId}")
+    public ResponseEntity<StreamingResponseBody> getVehicleLabels(@PathVariable Long vehicleId) {
+        return zipResponse("labels-vehicle-" + vehicleId + ".zip", out -> labelService.writeZipForVehicle(vehicleId, out));
     }
 
     @PostMapping("/dispatch")
     public String dispatchShipment(@RequestBody Shipment shipment) {
-        shipment.setTrackingId(UUID.randomUUID().toString());
-        shipment.setStatus("DISPATCHED");
-
-        // SAVE TO DB
-        shipmentRepository.save(shipment);
-
-        // Notify Fleet Service via RabbitMQ
-        ShipmentEvent event = new ShipmentEvent();
-        event.setStatus("IN_TRANSIT");
-        event.setMessage("Shipment dispatched via " + shipment.getOrigin());
-        event.setVehicleId(shipment.getVehicleId());
-        event.setWeight(shipment.getWeight());
-        // -----------------------
-        event.setTrackingId(shipment.getTrackingId());
-        event.setOrigin(shipment.getOrigin());
-        event.setDestination(shipment.getDestination());
-        String plate = shipment.getLicensePlate() != null ? shipment.getLicensePlate() : "ID-" + shipment.getVehicleId();
-        event.setLicensePlate(plate);
-        // -----------------------
-        shipmentProducer.sendMessage(event);
-
-        // Notify Dashboard via WebSocket
-        String notification = "{\"status\":\"DISPATCHED\", \"trackingId\":\"" + shipment.getTrackingId() + "\"}";
-        messagingTemplate.convertAndSend("/topic/shipments", notification);
-
-        // Notify Analytics (Kafka)
-        try {
-            analyticsProducer.sendRouteStats(shipment.getOrigin(), shipment.getDestination());
-        } catch (Exception e) {
-            // Log error but don't fail the shipment if analytics is down
-            System.err.println("Analytics Error: " + e.getMessage());
-        }
+        // Broker notifications go through the outbox, so the request returns once the DB commit finishes
+        shipmentService.dispatch(shipment);
 
         return "Shipment Dispatched Successfully! Tracking ID: " + shipment.getTrackingId();
     }
+
+    @PostMapping("/dispatch/batch")
+    public BatchDispatchResult dispatchShipments(@RequestBody List<Shipment> shipments) {
+        return shipmentService.dispatchBatch(shipments);
+    }
+
+    @GetMapping("/outbox/lag")
+    public OutboxLag getOutboxLag() {
+        return outboxRelay.getLag();
+    }
+
+    private ResponseEntity<StreamingResponseBody> zipResponse(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    private UUID parseTrackingId(String trackingId) {
+        try {
+            return UUID.fromString(trackingId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.logistics.shippingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchDispatchResult {
+    private int dispatched;
+    private int failed;
+    private List<String> trackingIds;   // Same order as the request; null where the row failed
+    private List<RowFailure> failures;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowFailure {
+        private int index;
+        private String reason;
+    }
+}
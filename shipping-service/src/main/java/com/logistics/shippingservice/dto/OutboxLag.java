@@ -0,0 +1,15 @@
+package com.logistics.shippingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxLag {
+    private long pendingEvents;
+    private long oldestPendingAgeMs;
+    private long relayedTotal;
+    private long lastRelayAt;
+}
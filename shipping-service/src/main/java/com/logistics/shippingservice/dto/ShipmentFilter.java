@@ -7,8 +7,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class RouteEvent {
+public class ShipmentFilter {
+    private String status;
     private String origin;
     private String destination;
-    private long timestamp;
-}
\ No newline at end of file
+    private Long vehicleId;
+}
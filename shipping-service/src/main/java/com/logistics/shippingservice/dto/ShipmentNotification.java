@@ -1,4 +1,4 @@
-package com.logistics.fleetservice.rabbitmq.dto;
+package com.logistics.shippingservice.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,9 +7,7 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class ShipmentEvent {
+public class ShipmentNotification {
     private String status;
-    private String message;
-    private Long vehicleId;
-    private int quantity;
+    private String trackingId;
 }
@@ -0,0 +1,15 @@
+package com.logistics.shippingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipmentNotificationBatch {
+    private int count;                          // Distinct shipments updated during the tick
+    private List<ShipmentNotification> updates; // Capped at shipment.broadcast.max-frame-updates
+}
@@ -0,0 +1,27 @@
+package com.logistics.shippingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "t_shipment_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "t_shipment_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private String trackingId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;         // ShipmentEvent serialized as JSON
+
+    private Long createdAt;         // Epoch millis, used to compute relay lag
+}
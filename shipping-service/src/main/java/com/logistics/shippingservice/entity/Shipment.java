@@ -3,8 +3,12 @@ package com.logistics.shippingservice.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.UUID;
+
 @Entity
-@Table(name = "t_shipments")
+@Table(name = "t_shipments", indexes = {
+        @Index(name = "ux_shipments_tracking_id", columnList = "trackingId", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,10 +18,13 @@ import lombok.*;
 public class Shipment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (not IDENTITY) so Hibernate can assign ids up front and batch the INSERTs
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_seq")
+    @SequenceGenerator(name = "shipment_seq", sequenceName = "t_shipments_seq", allocationSize = 50)
     private Long id;
 
-    private String trackingId;      // The unique UUID for the customer
+    @Column(columnDefinition = "uuid")
+    private UUID trackingId;        // The unique UUID for the customer, stored as 16 bytes
     private String status;          // "PENDING", "DISPATCHED", "DELIVERED"
     private Long vehicleId;
     private String origin;
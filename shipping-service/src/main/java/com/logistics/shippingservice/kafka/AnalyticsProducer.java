@@ -1,7 +1,9 @@
 package com.logistics.shippingservice.kafka;
 
-import com.logistics.shippingservice.dto.RouteEvent;
-import lombok.RequiredArgsConstructor;
+import com.logistics.contract.RouteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -10,25 +12,71 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Service
-@RequiredArgsConstructor
 public class AnalyticsProducer {
 
+    public static final String TOPIC = "logistics_routes";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsProducer.class);
     private final KafkaTemplate<String, RouteEvent> kafkaTemplate;
 
+    private final Timer sendLatency;
+    private final Counter sendSuccess;
+    private final Counter sendFailure;
+
+    public AnalyticsProducer(KafkaTemplate<String, RouteEvent> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sendLatency = Timer.builder("analytics.route.send.latency")
+                .description("Time from send to broker acknowledgement")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sendSuccess = meterRegistry.counter("analytics.route.send", "result", "success");
+        this.sendFailure = meterRegistry.counter("analytics.route.send", "result", "failure");
+    }
+
+    // Same lane -> same partition, so per-route order holds and consumers can partition their state by lane
+    public static String routeKey(String origin, String destination) {
+        return origin + "->" + destination;
+    }
+
     public void sendRouteStats(String origin, String destination) {
         // Create the event
-        RouteEvent event = new RouteEvent(origin, destination, System.currentTimeMillis());
+        RouteEvent event = new RouteEvent(origin, destination, System.currentTimeMillis(), null);
 
-        LOGGER.info("Sending Route Analytics to Kafka: {} -> {}", origin, destination);
+        LOGGER.debug("Sending Route Analytics to Kafka: {} -> {}", origin, destination);
 
         Message<RouteEvent> message = MessageBuilder
                 .withPayload(event)
-                .setHeader(KafkaHeaders.TOPIC, "logistics_routes")
+                .setHeader(KafkaHeaders.TOPIC, TOPIC)
+                .setHeader(KafkaHeaders.KEY, routeKey(origin, destination))
                 .build();
 
         // Send asynchronously
-        kafkaTemplate.send(message);
+        long start = System.nanoTime();
+        kafkaTemplate.send(message).whenComplete((result, error) -> recordSend(start, error));
+    }
+
+    public void sendRouteStats(List<RouteEvent> events) {
+        LOGGER.debug("Sending batch of {} route events to Kafka", events.size());
+
+        // The producer groups these into compressed record batches per partition (see linger.ms / batch.size)
+        for (RouteEvent event : events) {
+            long start = System.nanoTime();
+            kafkaTemplate.send(TOPIC, routeKey(event.getOrigin(), event.getDestination()), event)
+                    .whenComplete((result, error) -> recordSend(start, error));
+        }
+    }
+
+    private void recordSend(long start, Throwable error) {
+        sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (error == null) {
+            sendSuccess.increment();
+        } else {
+            sendFailure.increment();
+            LOGGER.warn("Route event was not acknowledged by Kafka: {}", error.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
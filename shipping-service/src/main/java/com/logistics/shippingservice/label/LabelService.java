@@ -0,0 +1,102 @@
+package com.logistics.shippingservice.label;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.shippingservice.entity.Shipment;
+import com.logistics.shippingservice.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+public class LabelService {
+
+    private static final int LOOKUP_CHUNK = 500;
+
+    private final ShipmentRepository shipmentRepository;
+    private final EntityManager entityManager;
+    private final LabelTemplate template;
+
+    // Label content only depends on fields that never change after dispatch, so entries never go stale
+    private final Cache<UUID, RenderedLabel> labels;
+
+    public LabelService(ShipmentRepository shipmentRepository,
+                        EntityManager entityManager,
+                        @Value("${shipment.label.template:templates/shipping-label.html}") String templatePath,
+                        @Value("${shipment.label.cache-size:20000}") long cacheSize) throws IOException {
+        this.shipmentRepository = shipmentRepository;
+        this.entityManager = entityManager;
+        this.template = new LabelTemplate(
+                new ClassPathResource(templatePath).getContentAsString(StandardCharsets.UTF_8));
+        this.labels = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public RenderedLabel getCached(UUID trackingId) {
+        return labels.getIfPresent(trackingId);
+    }
+
+    public RenderedLabel render(Shipment shipment) {
+        return labels.get(shipment.getTrackingId(), id -> {
+            byte[] content = template.render(shipment).getBytes(StandardCharsets.UTF_8);
+            return new RenderedLabel(content, "\"" + DigestUtils.md5DigestAsHex(content) + "\"");
+        });
+    }
+
+    // Streams one ZIP entry per label; shipments are looked up in chunks so memory stays flat.
+    // Repeated tracking IDs are collapsed first, since a ZIP cannot hold two entries with the same name
+    @Transactional(readOnly = true)
+    public void writeZip(List<UUID> requestedIds, OutputStream out) throws IOException {
+        List<UUID> trackingIds = new ArrayList<>(new LinkedHashSet<>(requestedIds));
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (int from = 0; from < trackingIds.size(); from += LOOKUP_CHUNK) {
+            List<UUID> chunk = trackingIds.subList(from, Math.min(from + LOOKUP_CHUNK, trackingIds.size()));
+            for (Shipment shipment : shipmentRepository.findByTrackingIdIn(chunk)) {
+                writeEntry(zip, shipment);
+            }
+            entityManager.clear();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void writeZipForVehicle(Long vehicleId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try (Stream<Shipment> rows = shipmentRepository.streamAll(0L, null, null, null, vehicleId)) {
+            Iterator<Shipment> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Shipment shipment = iterator.next();
+                writeEntry(zip, shipment);
+                entityManager.detach(shipment);
+            }
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    // Bulk exports reuse a cached label but do not add to the cache, so one large ZIP cannot evict the
+    // labels that single reprints depend on
+    private void writeEntry(ZipOutputStream zip, Shipment shipment) throws IOException {
+        RenderedLabel cached = labels.getIfPresent(shipment.getTrackingId());
+        zip.putNextEntry(new ZipEntry("label-" + shipment.getTrackingId() + ".html"));
+        zip.write(cached != null ? cached.getContent() : template.render(shipment).getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,62 @@
+package com.logistics.shippingservice.label;
+
+import com.logistics.shippingservice.entity.Shipment;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Label HTML split once into literal chunks and field slots, so rendering is a single pass of appends
+public class LabelTemplate {
+
+    private static final Map<String, Function<Shipment, Object>> FIELDS = Map.of(
+            "trackingId", Shipment::getTrackingId,
+            "origin", Shipment::getOrigin,
+            "destination", Shipment::getDestination,
+            "weight", Shipment::getWeight,
+            "packageCount", Shipment::getPackageCount,
+            "licensePlate", Shipment::getLicensePlate,
+            "vehicleId", Shipment::getVehicleId
+    );
+
+    private final List<String> literals = new ArrayList<>();
+    private final List<Function<Shipment, Object>> slots = new ArrayList<>();
+    private final int sizeHint;
+
+    public LabelTemplate(String source) {
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            Function<Shipment, Object> field = FIELDS.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown label field: " + name);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(field);
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        this.sizeHint = source.length() + 128;
+    }
+
+    public String render(Shipment shipment) {
+        StringBuilder html = new StringBuilder(sizeHint);
+        for (int i = 0; i < slots.size(); i++) {
+            html.append(literals.get(i));
+            Object value = slots.get(i).apply(shipment);
+            html.append(value != null ? HtmlUtils.htmlEscape(value.toString()) : "N/A");
+        }
+        html.append(literals.get(literals.size() - 1));
+        return html.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.logistics.shippingservice.label;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RenderedLabel {
+    private final byte[] content;
+    private final String etag;
+}
@@ -0,0 +1,159 @@
+package com.logistics.shippingservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.contract.RouteEvent;
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.shippingservice.dto.OutboxLag;
+import com.logistics.shippingservice.entity.OutboxEvent;
+import com.logistics.shippingservice.kafka.AnalyticsProducer;
+import com.logistics.shippingservice.rabbitmq.producer.ShipmentProducer;
+import com.logistics.shippingservice.repository.OutboxEventRepository;
+import com.logistics.shippingservice.websocket.broadcast.ShipmentBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ShipmentProducer shipmentProducer;
+    private final ShipmentBroadcaster shipmentBroadcaster;
+    private final AnalyticsProducer analyticsProducer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicLong relayedTotal = new AtomicLong();
+    private volatile long lastRelayAt;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ShipmentProducer shipmentProducer,
+                       ShipmentBroadcaster shipmentBroadcaster,
+                       AnalyticsProducer analyticsProducer,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.shipmentProducer = shipmentProducer;
+        this.shipmentBroadcaster = shipmentBroadcaster;
+        this.analyticsProducer = analyticsProducer;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.flush-interval-ms:200}")
+    public void relay() {
+        // Keep draining full batches so a burst does not wait one interval per batch
+        Integer relayed;
+        try {
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            // The batch rolled back and stays in the outbox for the next tick
+            LOGGER.warn("Outbox relay failed, retrying next interval: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        List<ShipmentEvent> events = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            ids.add(outboxEvent.getId());
+            ShipmentEvent event = decode(outboxEvent);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        // Notify Fleet Service via RabbitMQ; the rows are only deleted once the broker has them
+        shipmentProducer.sendMessages(events);
+
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+        afterCommit(() -> {
+            relayedTotal.addAndGet(ids.size());
+            lastRelayAt = System.currentTimeMillis();
+            notifyDispatched(events);
+        });
+        return ids.size();
+    }
+
+    // The dashboard and analytics only hear about a batch once its delete has committed, so a rolled-back
+    // batch (relayed again next tick) is never shown or counted twice
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void notifyDispatched(List<ShipmentEvent> events) {
+        // Notify Dashboard via WebSocket; the batch is already committed, so a failure here is only logged
+        try {
+            for (ShipmentEvent event : events) {
+                shipmentBroadcaster.publish(event.getTrackingId(), "DISPATCHED");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Dashboard Error: {}", e.getMessage());
+        }
+
+        // Notify Analytics (Kafka)
+        try {
+            List<RouteEvent> routes = new ArrayList<>(events.size());
+            long now = System.currentTimeMillis();
+            for (ShipmentEvent event : events) {
+                // Stamped with the dispatch time, not the relay time, so consumers can measure end-to-end lag
+                long dispatchedAt = event.getDispatchedAt() > 0 ? event.getDispatchedAt() : now;
+                routes.add(new RouteEvent(event.getOrigin(), event.getDestination(), dispatchedAt, event.getWeight()));
+            }
+            analyticsProducer.sendRouteStats(routes);
+        } catch (Exception e) {
+            // Log error but don't block the outbox if analytics is down
+            LOGGER.error("Analytics Error: {}", e.getMessage());
+        }
+    }
+
+    private ShipmentEvent decode(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), ShipmentEvent.class);
+        } catch (JsonProcessingException e) {
+            // A payload that cannot be read would block the outbox forever, so it is dropped
+            LOGGER.error("Dropping unreadable outbox event {}", outboxEvent.getId(), e);
+            return null;
+        }
+    }
+
+    public OutboxLag getLag() {
+        long now = System.currentTimeMillis();
+        long oldestAge = outboxEventRepository.findFirstByOrderByIdAsc()
+                .map(event -> now - event.getCreatedAt())
+                .orElse(0L);
+        return new OutboxLag(outboxEventRepository.count(), oldestAge, relayedTotal.get(), lastRelayAt);
+    }
+}
@@ -1,10 +1,12 @@
 package com.logistics.shippingservice.rabbitmq.config;
 
+import com.logistics.contract.amqp.EventMessageConverter;
+import com.logistics.contract.wire.WireFormat;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -30,9 +32,13 @@ public class RabbitMqConfig {
         return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
     }
 
+    @Value("${logistics.events.wire-format:binary}")
+    private String wireFormat;
+
+    // Shipment events go out in the compact binary format unless wire-format is json; consumers read both
     @Bean
     public MessageConverter converter() {
-        return new Jackson2JsonMessageConverter();
+        return new EventMessageConverter(WireFormat.parse(wireFormat));
     }
 
     @Bean
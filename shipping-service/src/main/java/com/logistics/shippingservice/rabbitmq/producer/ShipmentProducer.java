@@ -1,23 +1,211 @@
 package com.logistics.shippingservice.rabbitmq.producer;
 
+import com.logistics.contract.ShipmentEvent;
 import com.logistics.shippingservice.rabbitmq.config.RabbitMqConfig;
-import com.logistics.shippingservice.dto.ShipmentEvent;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
-@RequiredArgsConstructor
 public class ShipmentProducer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ShipmentProducer.class);
+    private static final long WINDOW_POLL_MS = 10;
+
     private final RabbitTemplate rabbitTemplate;
+    private final Semaphore inFlightWindow;
+    private final int maxRetries;
+    private final long confirmTimeoutMs;
+    private final long acquireTimeoutMs;
+
+    // Retries are never published from the confirm callback, which runs on the connection thread
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shipment-publish-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer publishLatency;
+    private final Counter confirmFailures;
+    private final Counter lateConfirms;
+    private final Counter publishRetries;
+
+    public ShipmentProducer(RabbitTemplate rabbitTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${shipment.publisher.max-in-flight:1024}") int maxInFlight,
+                            @Value("${shipment.publisher.max-retries:3}") int maxRetries,
+                            @Value("${shipment.publisher.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                            @Value("${shipment.publisher.acquire-timeout-ms:10000}") long acquireTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.inFlightWindow = new Semaphore(maxInFlight);
+        this.maxRetries = maxRetries;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+
+        this.publishLatency = Timer.builder("shipment.publish.latency")
+                .description("Time from publish to broker confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.confirmFailures = meterRegistry.counter("shipment.publish.confirm.failures");
+        this.lateConfirms = meterRegistry.counter("shipment.publish.confirm.late");
+        this.publishRetries = meterRegistry.counter("shipment.publish.retries");
+        meterRegistry.gauge("shipment.publish.in_flight", inFlight);
+    }
 
     public void sendMessage(ShipmentEvent event) {
-        LOGGER.info(String.format("Order placed -> Sending message to RabbitMQ: %s", event.toString()));
+        sendAsync(event);
+    }
+
+    // Completes once the broker confirms the message, after retrying nacks and returns
+    public CompletableFuture<Void> sendAsync(ShipmentEvent event) {
+        return sendAsync(rabbitTemplate, event);
+    }
+
+    // Publishes the whole batch on one channel, then waits until every message is confirmed
+    public void sendMessages(List<ShipmentEvent> events) {
+        LOGGER.debug("Sending batch of {} shipment events to RabbitMQ", events.size());
+
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(events.size());
+        rabbitTemplate.invoke(operations -> {
+            for (ShipmentEvent event : events) {
+                confirms.add(sendAsync(operations, event));
+            }
+            return null;
+        });
+
+        CompletableFuture.allOf(confirms.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private CompletableFuture<Void> sendAsync(RabbitOperations operations, ShipmentEvent event) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        publish(operations, event, messageId(event), 0, result);
+        return result;
+    }
+
+    // The same for every attempt at one event, and for the relay sending the same outbox row again, so consumers
+    // can drop the copy a retry delivers after the first attempt did get through
+    private static String messageId(ShipmentEvent event) {
+        if (event.getTrackingId() == null) {
+            return UUID.randomUUID().toString();
+        }
+        return event.getTrackingId() + ":" + event.getStatus() + ":" + event.getDispatchedAt();
+    }
+
+    private void publish(RabbitOperations operations, ShipmentEvent event, String messageId, int attempt,
+                         CompletableFuture<Void> result) {
+        try {
+            // Bounded window: callers slow down instead of piling up unconfirmed messages
+            if (!inFlightWindow.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                result.completeExceptionally(windowFull(event));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return;
+        }
+        send(operations, event, messageId, attempt, result);
+    }
+
+    // Runs on the single retry thread, so it never waits for the window: while the window is full the retry is put
+    // back on the schedule, and the other retries keep moving
+    private void republish(ShipmentEvent event, String messageId, int attempt, CompletableFuture<Void> result,
+                           long deadlineNanos) {
+        if (inFlightWindow.tryAcquire()) {
+            send(rabbitTemplate, event, messageId, attempt, result);
+        } else if (System.nanoTime() - deadlineNanos >= 0) {
+            result.completeExceptionally(windowFull(event));
+        } else {
+            retryExecutor.schedule(() -> republish(event, messageId, attempt, result, deadlineNanos),
+                    WINDOW_POLL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static AmqpException windowFull(ShipmentEvent event) {
+        return new AmqpException("Publish window full for " + event.getTrackingId());
+    }
+
+    // Caller holds a window permit; the confirm callback gives it back. A confirm slower than confirmTimeoutMs is
+    // only reported: the message may still be routed, so it keeps its permit and is not republished until the
+    // broker acks or nacks it (a closed channel nacks everything still pending)
+    private void send(RabbitOperations operations, ShipmentEvent event, String messageId, int attempt,
+                      CompletableFuture<Void> result) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        ScheduledFuture<?> lateWarning = retryExecutor.schedule(() -> {
+            lateConfirms.increment();
+            LOGGER.warn("No confirm for shipment event {} after {} ms, still waiting", event.getTrackingId(),
+                    confirmTimeoutMs);
+        }, confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        correlation.getFuture()
+                .whenComplete((confirm, error) -> {
+                    lateWarning.cancel(false);
+                    inFlight.decrementAndGet();
+                    inFlightWindow.release();
+                    publishLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+                    if (error == null && confirm.isAck() && correlation.getReturned() == null) {
+                        result.complete(null);
+                    } else if (error != null) {
+                        retryOrFail(event, messageId, attempt, result, error.toString());
+                    } else if (correlation.getReturned() != null) {
+                        retryOrFail(event, messageId, attempt, result, "returned: " + correlation.getReturned().getReplyText());
+                    } else {
+                        retryOrFail(event, messageId, attempt, result, "nack: " + confirm.getReason());
+                    }
+                });
+
+        MessagePostProcessor stampId = message -> {
+            message.getMessageProperties().setMessageId(messageId);
+            return message;
+        };
+        try {
+            operations.convertAndSend(RabbitMqConfig.EXCHANGE, RabbitMqConfig.ROUTING_KEY, event, stampId, correlation);
+        } catch (AmqpException e) {
+            // Completing the correlation runs the same release/retry path as a broker nack
+            correlation.getFuture().completeExceptionally(e);
+        }
+    }
+
+    private void retryOrFail(ShipmentEvent event, String messageId, int attempt, CompletableFuture<Void> result,
+                             String reason) {
+        confirmFailures.increment();
+        if (attempt >= maxRetries) {
+            LOGGER.error("Giving up on shipment event {} after {} attempts: {}", event.getTrackingId(), attempt + 1, reason);
+            result.completeExceptionally(new AmqpException("Publish failed for " + event.getTrackingId() + ": " + reason));
+            return;
+        }
+        publishRetries.increment();
+        long backoffMs = 100L << attempt;
+        retryExecutor.schedule(() -> republish(event, messageId, attempt + 1, result,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs)), backoffMs, TimeUnit.MILLISECONDS);
+    }
 
-        rabbitTemplate.convertAndSend(RabbitMqConfig.EXCHANGE, RabbitMqConfig.ROUTING_KEY, event);
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdown();
     }
 }
@@ -0,0 +1,20 @@
+package com.logistics.shippingservice.repository;
+
+import com.logistics.shippingservice.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several shipping-service instances relay in parallel without double-publishing
+    @Query(value = "SELECT * FROM t_shipment_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
@@ -1,10 +1,54 @@
 package com.logistics.shippingservice.repository;
 
 import com.logistics.shippingservice.entity.Shipment;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
-    // This empty interface gives .save(), .findAll(), .findById()
-}
\ No newline at end of file
+    // JpaRepository gives .save(), .findAll(), .findById()
+
+    String FILTERED = "SELECT s FROM Shipment s WHERE s.id > :afterId"
+            + " AND (:status IS NULL OR s.status = :status)"
+            + " AND (:origin IS NULL OR s.origin = :origin)"
+            + " AND (:destination IS NULL OR s.destination = :destination)"
+            + " AND (:vehicleId IS NULL OR s.vehicleId = :vehicleId)"
+            + " ORDER BY s.id";
+
+    // Keyset page: seeks past the last seen id instead of using OFFSET, so deep pages cost the same as the first
+    @Query(FILTERED)
+    List<Shipment> findPage(@Param("afterId") long afterId,
+                            @Param("status") String status,
+                            @Param("origin") String origin,
+                            @Param("destination") String destination,
+                            @Param("vehicleId") Long vehicleId,
+                            Pageable pageable);
+
+    // Server-side cursor; must be consumed inside a read-only transaction
+    @Query(FILTERED)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Shipment> streamAll(@Param("afterId") long afterId,
+                               @Param("status") String status,
+                               @Param("origin") String origin,
+                               @Param("destination") String destination,
+                               @Param("vehicleId") Long vehicleId);
+
+    // Backed by the unique index ux_shipments_tracking_id
+    Optional<Shipment> findByTrackingId(UUID trackingId);
+
+    List<Shipment> findByTrackingIdIn(Collection<UUID> trackingIds);
+}
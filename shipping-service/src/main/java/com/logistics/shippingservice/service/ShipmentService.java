@@ -0,0 +1,173 @@
+package com.logistics.shippingservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.contract.ShipmentEvent;
+import com.logistics.shippingservice.cache.ShipmentCache;
+import com.logistics.shippingservice.dto.BatchDispatchResult;
+import com.logistics.shippingservice.dto.ShipmentFilter;
+import com.logistics.shippingservice.entity.OutboxEvent;
+import com.logistics.shippingservice.entity.Shipment;
+import com.logistics.shippingservice.repository.OutboxEventRepository;
+import com.logistics.shippingservice.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ShipmentService {
+
+    private final ShipmentRepository shipmentRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ShipmentCache shipmentCache;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    // The shipment row and its outbox row commit together; OutboxRelay publishes to the brokers afterwards
+    @Transactional
+    public Shipment dispatch(Shipment shipment) {
+        prepare(shipment);
+
+        shipmentRepository.save(shipment);
+        outboxEventRepository.save(toOutboxEvent(toEvent(shipment)));
+        shipmentCache.putAfterCommit(shipment);
+
+        return shipment;
+    }
+
+    // Bulk imports leave the shipment cache alone, so one large batch cannot evict the entries lookups rely on
+    @Transactional
+    public BatchDispatchResult dispatchBatch(List<Shipment> shipments) {
+        List<String> trackingIds = new ArrayList<>(shipments.size());
+        List<BatchDispatchResult.RowFailure> failures = new ArrayList<>();
+        List<Shipment> shipmentChunk = new ArrayList<>(jdbcBatchSize);
+        List<OutboxEvent> outboxChunk = new ArrayList<>(jdbcBatchSize);
+
+        for (int i = 0; i < shipments.size(); i++) {
+            Shipment shipment = shipments.get(i);
+            String invalid = validate(shipment);
+            if (invalid != null) {
+                trackingIds.add(null);
+                failures.add(new BatchDispatchResult.RowFailure(i, invalid));
+                continue;
+            }
+
+            prepare(shipment);
+            trackingIds.add(shipment.getTrackingId().toString());
+            shipmentChunk.add(shipment);
+            outboxChunk.add(toOutboxEvent(toEvent(shipment)));
+
+            if (shipmentChunk.size() == jdbcBatchSize) {
+                flushChunk(shipmentChunk, outboxChunk);
+            }
+        }
+        flushChunk(shipmentChunk, outboxChunk);
+
+        return new BatchDispatchResult(shipments.size() - failures.size(), failures.size(), trackingIds, failures);
+    }
+
+    // Writes one JDBC batch per table, then detaches the rows so the persistence context stays small
+    private void flushChunk(List<Shipment> shipmentChunk, List<OutboxEvent> outboxChunk) {
+        if (shipmentChunk.isEmpty()) {
+            return;
+        }
+        shipmentRepository.saveAll(shipmentChunk);
+        outboxEventRepository.saveAll(outboxChunk);
+        entityManager.flush();
+        entityManager.clear();
+        shipmentChunk.clear();
+        outboxChunk.clear();
+    }
+
+    public Optional<Shipment> findByTrackingId(UUID trackingId) {
+        return shipmentCache.get(trackingId, shipmentRepository::findByTrackingId);
+    }
+
+    @Transactional
+    public Optional<Shipment> updateStatus(UUID trackingId, String status) {
+        Optional<Shipment> updated = shipmentRepository.findByTrackingId(trackingId);
+        updated.ifPresent(shipment -> {
+            shipment.setStatus(status);
+            shipmentCache.putAfterCommit(shipment);
+        });
+        return updated;
+    }
+
+    public List<Shipment> findPage(long afterId, int size, ShipmentFilter filter) {
+        return shipmentRepository.findPage(afterId, filter.getStatus(), filter.getOrigin(),
+                filter.getDestination(), filter.getVehicleId(), PageRequest.of(0, size));
+    }
+
+    // Writes one JSON object per line straight from the DB cursor; each row is detached once written
+    @Transactional(readOnly = true)
+    public void streamShipments(long afterId, ShipmentFilter filter, OutputStream out) throws IOException {
+        try (Stream<Shipment> rows = shipmentRepository.streamAll(afterId, filter.getStatus(), filter.getOrigin(),
+                filter.getDestination(), filter.getVehicleId())) {
+            Iterator<Shipment> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Shipment shipment = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(shipment));
+                out.write('\n');
+                entityManager.detach(shipment);
+            }
+        }
+        out.flush();
+    }
+
+    private void prepare(Shipment shipment) {
+        shipment.setId(null);
+        shipment.setTrackingId(UUID.randomUUID());
+        shipment.setStatus("DISPATCHED");
+    }
+
+    private String validate(Shipment shipment) {
+        if (shipment == null) return "Shipment is empty";
+        if (shipment.getOrigin() == null || shipment.getOrigin().isBlank()) return "Origin is required";
+        if (shipment.getDestination() == null || shipment.getDestination().isBlank()) return "Destination is required";
+        if (shipment.getVehicleId() == null) return "Vehicle ID is required";
+        return null;
+    }
+
+    public ShipmentEvent toEvent(Shipment shipment) {
+        ShipmentEvent event = new ShipmentEvent();
+        event.setStatus("IN_TRANSIT");
+        event.setMessage("Shipment dispatched via " + shipment.getOrigin());
+        event.setVehicleId(shipment.getVehicleId());
+        event.setWeight(shipment.getWeight());
+        event.setTrackingId(shipment.getTrackingId().toString());
+        event.setOrigin(shipment.getOrigin());
+        event.setDestination(shipment.getDestination());
+        String plate = shipment.getLicensePlate() != null ? shipment.getLicensePlate() : "ID-" + shipment.getVehicleId();
+        event.setLicensePlate(plate);
+        event.setDispatchedAt(System.currentTimeMillis());
+        return event;
+    }
+
+    private OutboxEvent toOutboxEvent(ShipmentEvent event) {
+        try {
+            return OutboxEvent.builder()
+                    .trackingId(event.getTrackingId())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(System.currentTimeMillis())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize shipment event " + event.getTrackingId(), e);
+        }
+    }
+}
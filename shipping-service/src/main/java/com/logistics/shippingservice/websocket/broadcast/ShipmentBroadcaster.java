@@ -0,0 +1,69 @@
+package com.logistics.shippingservice.websocket.broadcast;
+
+import com.logistics.shippingservice.dto.ShipmentNotification;
+import com.logistics.shippingservice.dto.ShipmentNotificationBatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ShipmentBroadcaster {
+
+    public static final String TOPIC = "/topic/shipments";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final boolean coalesce;
+    private final int maxFrameUpdates;
+
+    // Latest update per tracking ID since the last tick; a newer status replaces the older one
+    private final Map<String, ShipmentNotification> pending = new ConcurrentHashMap<>();
+
+    public ShipmentBroadcaster(SimpMessagingTemplate messagingTemplate,
+                               @Value("${shipment.broadcast.mode:coalesced}") String mode,
+                               @Value("${shipment.broadcast.max-frame-updates:200}") int maxFrameUpdates) {
+        this.messagingTemplate = messagingTemplate;
+        this.coalesce = "coalesced".equalsIgnoreCase(mode);
+        this.maxFrameUpdates = maxFrameUpdates;
+    }
+
+    public void publish(String trackingId, String status) {
+        ShipmentNotification notification = new ShipmentNotification(status, trackingId);
+        if (coalesce) {
+            pending.put(trackingId, notification);
+            return;
+        }
+        messagingTemplate.convertAndSend(TOPIC, notification);
+        messagingTemplate.convertAndSend(TOPIC + "/" + trackingId, notification);
+    }
+
+    @Scheduled(fixedDelayString = "${shipment.broadcast.tick-ms:100}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<ShipmentNotification> updates = new ArrayList<>(Math.min(pending.size(), maxFrameUpdates));
+        int count = 0;
+        for (String trackingId : pending.keySet()) {
+            // remove() hands back whatever is current, so an update racing with the flush is never lost
+            ShipmentNotification notification = pending.remove(trackingId);
+            if (notification == null) {
+                continue;
+            }
+            count++;
+            messagingTemplate.convertAndSend(TOPIC + "/" + trackingId, notification);
+            if (updates.size() < maxFrameUpdates) {
+                updates.add(notification);
+            }
+        }
+
+        // One frame per tick on the shared topic; bulk loads are compacted to a count plus a sample
+        messagingTemplate.convertAndSend(TOPIC, new ShipmentNotificationBatch(count, updates));
+    }
+}
@@ -0,0 +1,24 @@
+package com.logistics.shippingservice.websocket.config;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+// SubProtocolWebSocketHandler wraps every session in its own send-buffering decorator, which closes the session
+// once the buffer limit is hit. This one keeps the limits from WebSocketTransportRegistration but drops the
+// oldest buffered frames instead, so a slow browser misses some updates rather than being disconnected.
+// The send time limit still applies: a client that makes no progress at all is closed.
+public class DroppingSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    public DroppingSubProtocolWebSocketHandler(MessageChannel clientInboundChannel, SubscribableChannel clientOutboundChannel) {
+        super(clientInboundChannel, clientOutboundChannel);
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        return new ConcurrentWebSocketSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+    }
+}
@@ -0,0 +1,20 @@
+package com.logistics.shippingservice.websocket.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+// What @EnableWebSocketMessageBroker imports, with the STOMP session handler swapped for one that drops frames
+// for slow sessions. WebSocketConfig and any other WebSocketMessageBrokerConfigurer still apply as usual.
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                        AbstractSubscribableChannel clientOutboundChannel) {
+        return new DroppingSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel);
+    }
+}
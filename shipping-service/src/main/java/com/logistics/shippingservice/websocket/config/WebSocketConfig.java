@@ -1,15 +1,22 @@
 package com.logistics.shippingservice.websocket.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+// Broker infrastructure comes from WebSocketBrokerConfig rather than @EnableWebSocketMessageBroker
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${shipment.broadcast.session-buffer-bytes:524288}")
+    private int sessionBufferBytes;
+
+    @Value("${shipment.broadcast.session-send-time-limit-ms:10000}")
+    private int sessionSendTimeLimitMs;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
@@ -21,4 +28,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*"); // Allow Angular localhost
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Applied by DroppingSubProtocolWebSocketHandler to each session: past the buffer limit a slow browser
+        // loses its oldest frames instead of being disconnected, so broker threads never block on it
+        registration.setSendTimeLimit(sessionSendTimeLimitMs);
+        registration.setSendBufferSizeLimit(sessionBufferBytes);
+    }
 }
@@ -0,0 +1,37 @@
+-- The shipment tables are owned by JPA (ddl-auto: update). This script runs before Hibernate and only migrates
+-- what Hibernate will not change on an existing table; on a fresh database every block is a no-op.
+-- It runs as one script (spring.sql.init.separator) because the guards are DO blocks.
+
+-- tracking_id was varchar before it was stored as a native uuid
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 't_shipments'
+                 AND column_name = 'tracking_id' AND data_type <> 'uuid') THEN
+        ALTER TABLE t_shipments ALTER COLUMN tracking_id TYPE uuid USING tracking_id::uuid;
+    END IF;
+END $$;
+
+-- Ids were IDENTITY before they came from pooled sequences. Hibernate hands out the block (value - 50, value]
+-- for every nextval, so each sequence is moved to the highest existing id unless it is already past it; it is
+-- never moved backwards, which would hand a running instance's block out twice
+CREATE SEQUENCE IF NOT EXISTS t_shipments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS t_shipment_outbox_seq START WITH 1 INCREMENT BY 50;
+
+DO $$
+DECLARE
+    max_id BIGINT;
+BEGIN
+    IF to_regclass('t_shipments') IS NOT NULL THEN
+        SELECT MAX(id) INTO max_id FROM t_shipments;
+        IF max_id > (SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM t_shipments_seq) THEN
+            PERFORM setval('t_shipments_seq', max_id);
+        END IF;
+    END IF;
+    IF to_regclass('t_shipment_outbox') IS NOT NULL THEN
+        SELECT MAX(id) INTO max_id FROM t_shipment_outbox;
+        IF max_id > (SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM t_shipment_outbox_seq) THEN
+            PERFORM setval('t_shipment_outbox_seq', max_id);
+        END IF;
+    END IF;
+END $$;
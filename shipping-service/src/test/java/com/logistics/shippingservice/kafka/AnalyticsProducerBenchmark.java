@@ -0,0 +1,124 @@
+package com.logistics.shippingservice.kafka;
+
+import com.logistics.contract.RouteEvent;
+import com.logistics.contract.kafka.EventSerializer;
+import com.logistics.contract.wire.WireFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Route events/sec through AnalyticsProducer against a local embedded broker, with the client defaults versus
+// the producer settings from application.yml. Run with ./gradlew benchmark
+@Tag("benchmark")
+class AnalyticsProducerBenchmark {
+
+    private static final int EVENTS = 200_000;
+    private static final int WARMUP_EVENTS = 20_000;
+    private static final int CHUNK = 1_000;
+    private static final String[] CITIES = {"Bucharest", "Cluj", "Iasi", "Timisoara", "Constanta", "Brasov",
+            "Craiova", "Galati", "Oradea", "Sibiu", "Arad", "Pitesti"};
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        // Same partition count as the topic KafkaConfig declares
+        broker = new EmbeddedKafkaKraftBroker(1, 3, AnalyticsProducer.TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void defaultVersusTunedProducer() {
+        List<RouteEvent> events = events(EVENTS);
+
+        double defaults = run("client defaults", Map.of(), events);
+        double tuned = run("tuned (application.yml)", Map.of(
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.BATCH_SIZE_CONFIG, 65536,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5), events);
+
+        System.out.printf("  tuned / defaults: %.2fx%n", tuned / defaults);
+    }
+
+    private double run(String label, Map<String, Object> tuning, List<RouteEvent> events) {
+        Map<String, Object> config = new HashMap<>(tuning);
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class);
+        config.put(WireFormat.PROPERTY, "binary");
+        DefaultKafkaProducerFactory<String, RouteEvent> factory = new DefaultKafkaProducerFactory<>(config);
+        try {
+            KafkaTemplate<String, RouteEvent> template = new KafkaTemplate<>(factory);
+            MeterRegistry registry = new SimpleMeterRegistry();
+            AnalyticsProducer producer = new AnalyticsProducer(template, registry);
+
+            send(producer, template, registry, events.subList(0, WARMUP_EVENTS), WARMUP_EVENTS);
+            long start = System.nanoTime();
+            send(producer, template, registry, events, WARMUP_EVENTS + events.size());
+            long elapsed = System.nanoTime() - start;
+
+            assertThat(registry.counter("analytics.route.send", "result", "failure").count()).isZero();
+            double perSecond = events.size() / (elapsed / 1e9);
+            System.out.printf("analytics producer, %s: %,d events in %d ms = %,.0f events/sec (acked)%n",
+                    label, events.size(), TimeUnit.NANOSECONDS.toMillis(elapsed), perSecond);
+            return perSecond;
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    // Sends in chunks the way a dispatch batch does, then waits for every acknowledgement
+    private static void send(AnalyticsProducer producer, KafkaTemplate<String, RouteEvent> template,
+                             MeterRegistry registry, List<RouteEvent> events, long expectedTotal) {
+        for (int from = 0; from < events.size(); from += CHUNK) {
+            producer.sendRouteStats(events.subList(from, Math.min(from + CHUNK, events.size())));
+        }
+        template.flush();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (acked(registry) < expectedTotal) {
+            assertThat(System.nanoTime()).as("all sends acknowledged in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static double acked(MeterRegistry registry) {
+        return registry.counter("analytics.route.send", "result", "success").count()
+                + registry.counter("analytics.route.send", "result", "failure").count();
+    }
+
+    private static List<RouteEvent> events(int count) {
+        Random random = new Random(42);
+        List<RouteEvent> events = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            events.add(new RouteEvent(CITIES[random.nextInt(CITIES.length)], CITIES[random.nextInt(CITIES.length)],
+                    now + i, 5 + random.nextDouble() * 1_000));
+        }
+        return events;
+    }
+}
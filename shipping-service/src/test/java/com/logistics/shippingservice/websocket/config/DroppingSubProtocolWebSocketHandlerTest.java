@@ -0,0 +1,95 @@
+package com.logistics.shippingservice.websocket.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DroppingSubProtocolWebSocketHandlerTest {
+
+    private static final int BUFFER_LIMIT = 1024;
+    private static final TextMessage FRAME = new TextMessage("x".repeat(200));
+
+    private final AtomicInteger delivered = new AtomicInteger();
+
+    @Test
+    void slowSessionDropsFramesAndStaysOpen() throws Exception {
+        DroppingSubProtocolWebSocketHandler handler = new DroppingSubProtocolWebSocketHandler(
+                new ExecutorSubscribableChannel(), new ExecutorSubscribableChannel());
+        handler.setSendTimeLimit(10_000);
+        handler.setSendBufferSizeLimit(BUFFER_LIMIT);
+        WebSocketSession raw = slowSession();
+        WebSocketSession session = handler.decorateSession(raw);
+
+        List<Throwable> failures = burst(session);
+
+        assertThat(failures).isEmpty();
+        assertThat(session.isOpen()).isTrue();
+        verify(raw, never()).close(any(CloseStatus.class));
+        assertThat(delivered.get()).isPositive().isLessThan(400);
+    }
+
+    // What SubProtocolWebSocketHandler does out of the box, for contrast: the same burst ends the session
+    @Test
+    void defaultDecoratorTerminatesSlowSession() throws Exception {
+        WebSocketSession session = new ConcurrentWebSocketSessionDecorator(slowSession(), 10_000, BUFFER_LIMIT);
+
+        List<Throwable> failures = burst(session);
+
+        assertThat(failures).isNotEmpty().allMatch(SessionLimitExceededException.class::isInstance);
+    }
+
+    // Four broker threads push 400 frames at a browser that takes 20 ms per frame
+    private List<Throwable> burst(WebSocketSession session) throws InterruptedException {
+        ExecutorService broker = Executors.newFixedThreadPool(4);
+        List<Future<?>> sends = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            sends.add(broker.submit(() -> {
+                session.sendMessage(FRAME);
+                return null;
+            }));
+        }
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> send : sends) {
+            try {
+                send.get();
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        broker.shutdown();
+        return failures;
+    }
+
+    private WebSocketSession slowSession() throws Exception {
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn("slow");
+        when(raw.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            Thread.sleep(20);
+            delivered.incrementAndGet();
+            return null;
+        }).when(raw).sendMessage(any(WebSocketMessage.class));
+        return raw;
+    }
+}